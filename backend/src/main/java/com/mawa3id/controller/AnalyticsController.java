@@ -1,6 +1,8 @@
 package com.mawa3id.controller;
 
 import com.mawa3id.dto.AnalyticsDTO;
+import com.mawa3id.dto.AnalyticsSeriesPointDTO;
+import com.mawa3id.service.AnalyticsRollupService;
 import com.mawa3id.service.AnalyticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -8,8 +10,11 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -20,10 +25,29 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
     @GetMapping
     public ResponseEntity<AnalyticsDTO> getAnalytics(Authentication authentication) {
         UUID userId = (UUID) authentication.getDetails();
         AnalyticsDTO analytics = analyticsService.getAnalytics(userId);
         return ResponseEntity.ok(analytics);
     }
+
+    @GetMapping("/series")
+    public ResponseEntity<List<AnalyticsSeriesPointDTO>> getSeries(
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to,
+            Authentication authentication) {
+        UUID userId = (UUID) authentication.getDetails();
+        AnalyticsRollupService.Granularity seriesGranularity;
+        try {
+            seriesGranularity = AnalyticsRollupService.Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid granularity: " + granularity);
+        }
+        return ResponseEntity.ok(analyticsRollupService.getSeries(userId, seriesGranularity, from, to));
+    }
 }
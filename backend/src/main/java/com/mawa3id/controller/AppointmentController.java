@@ -1,14 +1,19 @@
 package com.mawa3id.controller;
 
 import com.mawa3id.dto.AppointmentDTO;
+import com.mawa3id.dto.AppointmentPageDTO;
 import com.mawa3id.model.Appointment;
+import com.mawa3id.service.AppointmentExportService;
 import com.mawa3id.service.AppointmentService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,14 +24,48 @@ import java.util.UUID;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
 public class AppointmentController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private AppointmentService appointmentService;
 
+    @Autowired
+    private AppointmentExportService appointmentExportService;
+
     @GetMapping
-    public ResponseEntity<List<AppointmentDTO>> getAppointments(Authentication authentication) {
+    public ResponseEntity<List<AppointmentDTO>> getAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean all,
+            Authentication authentication) {
+        UUID userId = (UUID) authentication.getDetails();
+        if (all) {
+            return ResponseEntity.ok(appointmentService.getAppointmentsByUserId(userId));
+        }
+        return toPageResponse(appointmentService.getAppointmentPage(userId, null, null, cursor, limit));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(defaultValue = "ndjson") String format,
+            Authentication authentication) {
         UUID userId = (UUID) authentication.getDetails();
-        List<AppointmentDTO> appointments = appointmentService.getAppointmentsByUserId(userId);
-        return ResponseEntity.ok(appointments);
+        AppointmentExportService.Format exportFormat;
+        try {
+            exportFormat = AppointmentExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid export format: " + format);
+        }
+
+        boolean csv = exportFormat == AppointmentExportService.Format.CSV;
+        StreamingResponseBody body = outputStream ->
+                appointmentExportService.exportAppointments(userId, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -42,10 +81,15 @@ public class AppointmentController {
     public ResponseEntity<List<AppointmentDTO>> getAppointmentsByDateRange(
             @RequestParam LocalDate startDate,
             @RequestParam LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean all,
             Authentication authentication) {
         UUID userId = (UUID) authentication.getDetails();
-        List<AppointmentDTO> appointments = appointmentService.getAppointmentsByDateRange(userId, startDate, endDate);
-        return ResponseEntity.ok(appointments);
+        if (all) {
+            return ResponseEntity.ok(appointmentService.getAppointmentsByDateRange(userId, startDate, endDate));
+        }
+        return toPageResponse(appointmentService.getAppointmentPage(userId, startDate, endDate, cursor, limit));
     }
 
     @PostMapping
@@ -112,4 +156,12 @@ public class AppointmentController {
         appointmentService.cancelAppointment(token);
         return ResponseEntity.ok("Appointment cancelled successfully");
     }
+
+    private ResponseEntity<List<AppointmentDTO>> toPageResponse(AppointmentPageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
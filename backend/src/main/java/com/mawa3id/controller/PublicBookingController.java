@@ -1,24 +1,22 @@
 package com.mawa3id.controller;
 
 import com.mawa3id.dto.AppointmentDTO;
-import com.mawa3id.dto.AvailabilityDTO;
-import com.mawa3id.dto.PublicBookingProfileDTO;
-import com.mawa3id.dto.ServiceDTO;
+import com.mawa3id.dto.AvailableSlotsDTO;
 import com.mawa3id.model.Appointment;
-import com.mawa3id.model.User;
-import com.mawa3id.repository.AvailabilityRepository;
-import com.mawa3id.repository.ServiceRepository;
-import com.mawa3id.repository.UserRepository;
 import com.mawa3id.service.AppointmentService;
+import com.mawa3id.service.BookingSlotService;
+import com.mawa3id.service.PublicBookingProfileCache;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/public")
@@ -26,48 +24,33 @@ import java.util.stream.Collectors;
 public class PublicBookingController {
 
     @Autowired
-    private UserRepository userRepository;
+    private PublicBookingProfileCache publicBookingProfileCache;
 
     @Autowired
-    private ServiceRepository serviceRepository;
+    private AppointmentService appointmentService;
 
     @Autowired
-    private AvailabilityRepository availabilityRepository;
-
-    @Autowired
-    private AppointmentService appointmentService;
+    private BookingSlotService bookingSlotService;
 
+    // Served from the pre-serialized cache; Spring answers a matching If-None-Match with 304
     @GetMapping("/booking/{businessId}")
-    public ResponseEntity<PublicBookingProfileDTO> getBookingProfile(@PathVariable UUID businessId) {
-        User business = userRepository.findById(businessId)
-                .orElseThrow(() -> new RuntimeException("Business not found"));
-
-        List<ServiceDTO> services = serviceRepository.findByUserId(businessId)
-                .stream()
-                .map(service -> new ServiceDTO(
-                        service.getId(),
-                        service.getName(),
-                        service.getDurationMinutes(),
-                        service.getPrice(),
-                        service.getCreatedAt(),
-                        service.getUpdatedAt()
-                ))
-                .collect(Collectors.toList());
-
-        List<AvailabilityDTO> availability = availabilityRepository.findByUserId(businessId)
-                .stream()
-                .map(a -> new AvailabilityDTO(a.getId(), a.getDayOfWeek(), a.getStartTime(), a.getEndTime()))
-                .collect(Collectors.toList());
-
-        PublicBookingProfileDTO response = new PublicBookingProfileDTO(
-                business.getId(),
-                business.getBusinessName(),
-                business.getPhone(),
-                services,
-                availability
-        );
+    public ResponseEntity<byte[]> getBookingProfile(@PathVariable UUID businessId) {
+        PublicBookingProfileCache.CachedProfile profile = publicBookingProfileCache.getProfile(businessId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(profile.etag())
+                .body(profile.json());
+    }
 
-        return ResponseEntity.ok(response);
+    @GetMapping("/booking/{businessId}/slots")
+    public ResponseEntity<List<AvailableSlotsDTO>> getAvailableSlots(
+            @PathVariable UUID businessId,
+            @RequestParam UUID serviceId,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to) {
+        List<AvailableSlotsDTO> slots = bookingSlotService.getAvailableSlots(businessId, serviceId, from, to);
+        return ResponseEntity.ok(slots);
     }
 
     @PostMapping("/booking/{businessId}/appointments")
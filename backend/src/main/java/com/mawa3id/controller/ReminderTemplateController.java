@@ -0,0 +1,44 @@
+package com.mawa3id.controller;
+
+import com.mawa3id.dto.ReminderTemplateDTO;
+import com.mawa3id.service.ReminderTemplateService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/reminder-templates")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080"})
+public class ReminderTemplateController {
+
+    @Autowired
+    private ReminderTemplateService reminderTemplateService;
+
+    @GetMapping
+    public ResponseEntity<List<ReminderTemplateDTO>> getTemplates(Authentication authentication) {
+        UUID userId = (UUID) authentication.getDetails();
+        return ResponseEntity.ok(reminderTemplateService.getTemplates(userId));
+    }
+
+    @PutMapping
+    public ResponseEntity<ReminderTemplateDTO> saveTemplate(
+            Authentication authentication,
+            @Valid @RequestBody ReminderTemplateDTO request) {
+        UUID userId = (UUID) authentication.getDetails();
+        return ResponseEntity.ok(reminderTemplateService.saveTemplate(userId, request));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTemplate(
+            @PathVariable UUID id,
+            Authentication authentication) {
+        UUID userId = (UUID) authentication.getDetails();
+        reminderTemplateService.deleteTemplate(id, userId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,9 +2,11 @@ package com.mawa3id.controller;
 
 import com.mawa3id.dto.AuthResponse;
 import com.mawa3id.dto.LoginRequest;
+import com.mawa3id.dto.RefreshTokenRequest;
 import com.mawa3id.dto.RegisterRequest;
 import com.mawa3id.model.User;
 import com.mawa3id.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -13,6 +15,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
@@ -23,16 +26,24 @@ public class UserController {
     private UserService userService;
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        userService.registerUser(request);
-        AuthResponse response = userService.loginUser(new LoginRequest(request.getEmail(), request.getPassword()));
-        response.setMessage("User registered successfully");
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(
+            @Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest) {
+        return userService.registerUser(request, httpRequest.getRemoteAddr())
+                .thenApply(user -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(userService.issueTokens(user, "User registered successfully")));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(userService.loginUser(request));
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        return userService.loginUser(request, httpRequest.getRemoteAddr()).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/token/refresh")
+    public ResponseEntity<AuthResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(userService.refreshToken(request));
     }
 
     @GetMapping("/profile")
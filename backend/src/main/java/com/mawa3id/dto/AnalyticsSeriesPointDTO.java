@@ -0,0 +1,28 @@
+package com.mawa3id.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsSeriesPointDTO {
+    private LocalDate periodStart;
+
+    private long totalAppointments;
+    private long confirmedAppointments;
+    private long cancelledAppointments;
+    private long noShowAppointments;
+    private long pendingAppointments;
+
+    private double noShowRate;
+
+    private BigDecimal totalRevenue;
+    private BigDecimal revenueLost;
+}
@@ -1,5 +1,6 @@
 package com.mawa3id.dto;
 
+import com.mawa3id.model.Appointment;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -38,4 +39,13 @@ public class AppointmentDTO {
     private String confirmationToken;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    // Used by JPQL constructor projections in AppointmentRepository
+    public AppointmentDTO(UUID id, UUID serviceId, String customerName, String customerPhone,
+                          LocalDate appointmentDate, LocalTime startTime, LocalTime endTime,
+                          Appointment.AppointmentStatus status, String confirmationToken,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, serviceId, customerName, customerPhone, appointmentDate, startTime, endTime,
+                status.name(), confirmationToken, createdAt, updatedAt);
+    }
+}
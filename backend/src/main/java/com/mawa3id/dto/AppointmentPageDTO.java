@@ -0,0 +1,15 @@
+package com.mawa3id.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentPageDTO {
+    private List<AppointmentDTO> items;
+    private String nextCursor;
+}
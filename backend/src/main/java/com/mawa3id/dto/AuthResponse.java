@@ -1,6 +1,7 @@
 package com.mawa3id.dto;
 
 import com.mawa3id.model.User;
+import com.mawa3id.service.ReminderTemplateService;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -27,6 +28,7 @@ public class AuthResponse {
         private String email;
         private String phone;
         private String subscriptionPlan;
+        private String locale;
         private LocalDateTime createdAt;
 
         public static UserDTO fromUser(User user) {
@@ -36,17 +38,19 @@ public class AuthResponse {
                     .email(user.getEmail())
                     .phone(user.getPhone())
                     .subscriptionPlan(user.getSubscriptionPlan().name())
+                    .locale(user.getLocale() != null ? user.getLocale() : ReminderTemplateService.DEFAULT_LOCALE)
                     .createdAt(user.getCreatedAt())
                     .build();
         }
 
         @Builder
-        public UserDTO(UUID id, String businessName, String email, String phone, String subscriptionPlan, LocalDateTime createdAt) {
+        public UserDTO(UUID id, String businessName, String email, String phone, String subscriptionPlan, String locale, LocalDateTime createdAt) {
             this.id = id;
             this.businessName = businessName;
             this.email = email;
             this.phone = phone;
             this.subscriptionPlan = subscriptionPlan;
+            this.locale = locale;
             this.createdAt = createdAt;
         }
     }
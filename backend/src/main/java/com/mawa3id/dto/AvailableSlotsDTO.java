@@ -0,0 +1,17 @@
+package com.mawa3id.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableSlotsDTO {
+    private LocalDate date;
+    private List<LocalTime> startTimes;
+}
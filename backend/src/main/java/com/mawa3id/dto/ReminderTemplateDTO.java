@@ -0,0 +1,34 @@
+package com.mawa3id.dto;
+
+import com.mawa3id.model.ReminderLog;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderTemplateDTO {
+    private UUID id;
+
+    private UUID serviceId;
+
+    @NotNull(message = "Reminder type is required")
+    private ReminderLog.ReminderType type;
+
+    @NotBlank(message = "Locale is required")
+    private String locale;
+
+    @NotBlank(message = "Template body is required")
+    @Size(max = 1000, message = "Template body must be at most 1000 characters")
+    private String body;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.mawa3id.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class AppointmentChangedEvent {
+    private UUID userId;
+    private UUID appointmentId;
+    private ChangeType changeType;
+
+    public enum ChangeType {
+        CREATED, STATUS_CHANGED, DELETED
+    }
+}
@@ -0,0 +1,15 @@
+package com.mawa3id.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class AppointmentsBatchChangedEvent {
+    private Set<UUID> userIds;
+    private int appointmentCount;
+    private AppointmentChangedEvent.ChangeType changeType;
+}
@@ -0,0 +1,11 @@
+package com.mawa3id.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ClusterMembershipChangedEvent {
+    private int partitionIndex;
+    private int partitionCount;
+}
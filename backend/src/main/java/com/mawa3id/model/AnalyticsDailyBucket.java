@@ -0,0 +1,51 @@
+package com.mawa3id.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "analytics_daily_buckets",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_analytics_daily_buckets_user_date_status",
+                columnNames = {"user_id", "bucket_date", "status"}
+        ),
+        indexes = @Index(name = "idx_analytics_daily_buckets_date", columnList = "bucket_date")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsDailyBucket {
+
+    @Id
+    @UuidGenerator
+    @Column
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private LocalDate bucketDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Appointment.AppointmentStatus status;
+
+    @Column(nullable = false)
+    private long appointmentCount;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column
+    private LocalDateTime updatedAt;
+}
@@ -7,13 +7,19 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UuidGenerator;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "appointments")
+@Table(
+        name = "appointments",
+        indexes = @Index(name = "idx_appointments_user_date_time", columnList = "user_id, appointment_date, start_time, id")
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -52,6 +58,9 @@ public class Appointment {
     @Column(unique = true)
     private String confirmationToken;
 
+    @Column
+    private BigDecimal price; // service price when booked; revenue stats always use this value
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -65,6 +74,13 @@ public class Appointment {
     }
 
     public enum AppointmentStatus {
-        PENDING, CONFIRMED, CANCELLED, NO_SHOW
+        PENDING, CONFIRMED, CANCELLED, NO_SHOW;
+
+        public static final Set<AppointmentStatus> OCCUPYING = EnumSet.of(PENDING, CONFIRMED);
+
+        // Only upcoming appointments hold their time; the others leave it free to book
+        public boolean occupiesSlot() {
+            return OCCUPYING.contains(this);
+        }
     }
 }
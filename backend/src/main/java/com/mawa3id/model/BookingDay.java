@@ -0,0 +1,34 @@
+package com.mawa3id.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Guard row for one business day; bookings lock it before checking for overlaps
+@Entity
+@Table(
+        name = "booking_days",
+        uniqueConstraints = @UniqueConstraint(name = "uk_booking_days_user_date", columnNames = {"user_id", "appointment_date"}),
+        indexes = @Index(name = "idx_booking_days_date", columnList = "appointment_date")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDay {
+
+    @Id
+    @UuidGenerator
+    @Column
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private LocalDate appointmentDate;
+}
@@ -0,0 +1,43 @@
+package com.mawa3id.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "business_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_business_stats_user_status", columnNames = {"user_id", "status"})
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusinessStat {
+
+    @Id
+    @UuidGenerator
+    @Column
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Appointment.AppointmentStatus status;
+
+    @Column(nullable = false)
+    private long appointmentCount;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.mawa3id.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "cluster_nodes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterNode {
+
+    @Id
+    @Column
+    private String nodeId;
+
+    @Column(nullable = false)
+    private LocalDateTime heartbeatAt;
+}
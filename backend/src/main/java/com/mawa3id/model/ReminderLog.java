@@ -11,7 +11,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "reminder_logs")
+@Table(
+        name = "reminder_logs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reminder_logs_appointment_type", columnNames = {"appointment_id", "type"}),
+        indexes = @Index(name = "idx_reminder_logs_status_next_attempt", columnList = "status, next_attempt_at")
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,7 +30,7 @@ public class ReminderLog {
     private UUID appointmentId;
 
     @CreationTimestamp
-    @Column(nullable = false, updatable = false)
+    @Column(nullable = false)
     private LocalDateTime sentAt;
 
     @Enumerated(EnumType.STRING)
@@ -37,11 +41,17 @@ public class ReminderLog {
     @Column(nullable = false)
     private ReminderStatus status;
 
+    @Column(nullable = false)
+    private int attemptCount;
+
+    @Column
+    private LocalDateTime nextAttemptAt; // set while a FAILED reminder is waiting for a retry
+
     public enum ReminderType {
         FIRST_REMINDER, FOLLOW_UP
     }
 
     public enum ReminderStatus {
-        SENT, FAILED
+        QUEUED, SENT, FAILED, GAVE_UP
     }
 }
@@ -0,0 +1,71 @@
+package com.mawa3id.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "reminder_templates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reminder_templates_scope", columnNames = {"user_id", "scope_id", "type", "locale"})
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderTemplate {
+
+    // scopeId of the business-wide template; MySQL unique keys do not cover NULL service ids
+    public static final UUID BUSINESS_WIDE = new UUID(0, 0);
+
+    @Id
+    @UuidGenerator
+    @Column
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column
+    private UUID serviceId; // null for the business-wide template
+
+    @Column(nullable = false)
+    private UUID scopeId; // serviceId, or BUSINESS_WIDE
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReminderLog.ReminderType type;
+
+    @Column(nullable = false, length = 5)
+    private String locale;
+
+    @Column(nullable = false, length = 1000)
+    private String body;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        scopeId = scopeOf(serviceId);
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        scopeId = scopeOf(serviceId);
+        updatedAt = LocalDateTime.now();
+    }
+
+    public static UUID scopeOf(UUID serviceId) {
+        return serviceId != null ? serviceId : BUSINESS_WIDE;
+    }
+}
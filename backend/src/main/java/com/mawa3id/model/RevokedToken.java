@@ -0,0 +1,38 @@
+package com.mawa3id.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "revoked_tokens",
+        indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken implements Persistable<String> {
+
+    @Id
+    @Column(length = 36)
+    private String tokenId; // jti of a refresh token that has been used, or a revoked token family id
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Override
+    public String getId() {
+        return tokenId;
+    }
+
+    // Rows are only ever inserted, so save() must persist rather than merge
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package com.mawa3id.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "sms_outbox",
+        indexes = {
+                @Index(name = "idx_sms_outbox_status_available", columnList = "status, available_at"),
+                @Index(name = "idx_sms_outbox_status_created", columnList = "status, created_at")
+        }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmsOutboxMessage {
+
+    @Id
+    @UuidGenerator
+    @Column
+    private UUID id;
+
+    @Column(nullable = false)
+    private String toPhone;
+
+    @Lob
+    @Column(nullable = false)
+    private String body;
+
+    @Column
+    private UUID appointmentId; // set for reminder messages
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private ReminderLog.ReminderType reminderType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attemptCount;
+
+    @Column(nullable = false)
+    private LocalDateTime availableAt; // pushed forward while a worker holds the row
+
+    @Column
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime sentAt;
+
+    public enum OutboxStatus {
+        PENDING, SENT, FAILED
+    }
+}
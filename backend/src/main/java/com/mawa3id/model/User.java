@@ -34,6 +34,9 @@ public class User {
     @Column(nullable = false)
     private String passwordHash;
 
+    @Column(length = 5)
+    private String locale; // reminder language: ar, fr or en (en when unset)
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private SubscriptionPlan subscriptionPlan = SubscriptionPlan.STARTER;
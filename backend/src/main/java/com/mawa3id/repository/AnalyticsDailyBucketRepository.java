@@ -0,0 +1,43 @@
+package com.mawa3id.repository;
+
+import com.mawa3id.model.AnalyticsDailyBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AnalyticsDailyBucketRepository extends JpaRepository<AnalyticsDailyBucket, UUID> {
+    @Query("SELECT b FROM AnalyticsDailyBucket b WHERE b.userId = :userId " +
+           "AND b.bucketDate >= :startDate AND b.bucketDate <= :endDate " +
+           "ORDER BY b.bucketDate")
+    List<AnalyticsDailyBucket> findByUserIdAndDateRange(@Param("userId") UUID userId,
+                                                        @Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT b FROM AnalyticsDailyBucket b WHERE b.bucketDate >= :startDate AND b.bucketDate <= :endDate")
+    List<AnalyticsDailyBucket> findByDateRange(@Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    // Single-statement upsert, so concurrent first writes for a day cannot collide on the unique key
+    @Modifying
+    @Query(value = "INSERT INTO analytics_daily_buckets (id, user_id, bucket_date, status, appointment_count, revenue, updated_at) " +
+                   "VALUES (:id, :userId, :bucketDate, :status, :countDelta, :revenueDelta, :now) " +
+                   "ON DUPLICATE KEY UPDATE appointment_count = appointment_count + :countDelta, " +
+                   "revenue = revenue + :revenueDelta, updated_at = :now",
+           nativeQuery = true)
+    int increment(@Param("id") UUID id,
+                  @Param("userId") UUID userId,
+                  @Param("bucketDate") LocalDate bucketDate,
+                  @Param("status") String status,
+                  @Param("countDelta") long countDelta,
+                  @Param("revenueDelta") BigDecimal revenueDelta,
+                  @Param("now") LocalDateTime now);
+}
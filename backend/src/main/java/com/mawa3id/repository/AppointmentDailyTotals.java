@@ -0,0 +1,7 @@
+package com.mawa3id.repository;
+
+import java.time.LocalDate;
+
+public interface AppointmentDailyTotals extends AppointmentStatusTotals {
+    LocalDate getAppointmentDate();
+}
@@ -1,19 +1,35 @@
 package com.mawa3id.repository;
 
+import com.mawa3id.dto.AppointmentDTO;
 import com.mawa3id.model.Appointment;
+import com.mawa3id.model.ReminderLog;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
+    String DTO_PROJECTION = "SELECT new com.mawa3id.dto.AppointmentDTO(" +
+            "a.id, a.serviceId, a.customerName, a.customerPhone, a.appointmentDate, " +
+            "a.startTime, a.endTime, a.status, a.confirmationToken, a.createdAt, a.updatedAt) ";
+
     List<Appointment> findByUserId(UUID userId);
 
     Optional<Appointment> findByConfirmationToken(String token);
@@ -27,6 +43,47 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
                                                @Param("startDate") LocalDate startDate,
                                                @Param("endDate") LocalDate endDate);
 
+    @Query(DTO_PROJECTION + "FROM Appointment a WHERE a.userId = :userId")
+    List<AppointmentDTO> findDTOsByUserId(@Param("userId") UUID userId);
+
+    @Query(DTO_PROJECTION + "FROM Appointment a WHERE a.userId = :userId " +
+           "AND a.appointmentDate >= :startDate " +
+           "AND a.appointmentDate <= :endDate")
+    List<AppointmentDTO> findDTOsByUserIdAndDateRange(@Param("userId") UUID userId,
+                                                      @Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
+
+    @Query(DTO_PROJECTION + "FROM Appointment a WHERE a.userId = :userId " +
+           "AND a.appointmentDate >= :startDate " +
+           "AND a.appointmentDate <= :endDate " +
+           "ORDER BY a.appointmentDate, a.startTime, a.id")
+    List<AppointmentDTO> findFirstPage(@Param("userId") UUID userId,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate,
+                                    Pageable pageable);
+
+    @Query(DTO_PROJECTION + "FROM Appointment a WHERE a.userId = :userId " +
+           "AND a.appointmentDate >= :startDate " +
+           "AND a.appointmentDate <= :endDate " +
+           "AND (a.appointmentDate > :afterDate " +
+           "OR (a.appointmentDate = :afterDate AND a.startTime > :afterTime) " +
+           "OR (a.appointmentDate = :afterDate AND a.startTime = :afterTime AND a.id > :afterId)) " +
+           "ORDER BY a.appointmentDate, a.startTime, a.id")
+    List<AppointmentDTO> findPageAfter(@Param("userId") UUID userId,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate,
+                                    @Param("afterDate") LocalDate afterDate,
+                                    @Param("afterTime") LocalTime afterTime,
+                                    @Param("afterId") UUID afterId,
+                                    Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Appointment a WHERE a.userId = :userId ORDER BY a.appointmentDate, a.startTime, a.id")
+    Stream<Appointment> streamByUserId(@Param("userId") UUID userId);
+
     @Query("SELECT a FROM Appointment a WHERE a.userId = :userId AND a.status = :status")
     List<Appointment> findByUserIdAndStatus(@Param("userId") UUID userId,
                                             @Param("status") Appointment.AppointmentStatus status);
@@ -40,19 +97,92 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
             LocalTime end
     );
 
-    List<Appointment> findByStatusAndAppointmentDateAndStartTimeBefore(
-            Appointment.AppointmentStatus status,
-            LocalDate appointmentDate,
-            LocalTime time
-    );
-
     List<Appointment> findByStatusAndAppointmentDateAndStartTimeAfter(
             Appointment.AppointmentStatus status,
             LocalDate appointmentDate,
             LocalTime time
     );
 
-    List<Appointment> findByStatusAndAppointmentDateBefore(Appointment.AppointmentStatus status, LocalDate date);
+    // Locks the chunk so its rows cannot change between the totals query and the UPDATE
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Appointment a WHERE a.status = 'PENDING' " +
+           "AND (a.appointmentDate < :today OR (a.appointmentDate = :today AND a.startTime < :now)) " +
+           "ORDER BY a.id")
+    List<Appointment> lockExpiredPending(@Param("today") LocalDate today,
+                                         @Param("now") LocalTime now,
+                                         Pageable pageable);
+
+    // A locking read, so it sees appointments committed after this transaction's snapshot
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT a FROM Appointment a WHERE a.userId = :userId AND a.appointmentDate = :appointmentDate " +
+           "AND a.status IN :statuses AND a.startTime < :endTime AND a.endTime > :startTime " +
+           "AND (:excludedId IS NULL OR a.id <> :excludedId)")
+    List<Appointment> lockOverlapping(@Param("userId") UUID userId,
+                                      @Param("appointmentDate") LocalDate appointmentDate,
+                                      @Param("startTime") LocalTime startTime,
+                                      @Param("endTime") LocalTime endTime,
+                                      @Param("statuses") Collection<Appointment.AppointmentStatus> statuses,
+                                      @Param("excludedId") UUID excludedId);
+
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = 'NO_SHOW', a.updatedAt = :updatedAt " +
+           "WHERE a.id IN :ids AND a.status = 'PENDING'")
+    int markNoShowByIds(@Param("ids") List<UUID> ids, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT a.userId AS userId, a.appointmentDate AS appointmentDate, a.status AS status, " +
+           "COUNT(a) AS appointmentCount, COALESCE(SUM(COALESCE(a.price, s.price)), 0) AS revenue " +
+           "FROM Appointment a LEFT JOIN Service s ON s.id = a.serviceId " +
+           "WHERE a.id IN :ids AND a.status = 'PENDING' " +
+           "GROUP BY a.userId, a.appointmentDate, a.status")
+    List<AppointmentDailyTotals> sumPendingByIds(@Param("ids") List<UUID> ids);
+
+    List<Appointment> findByStatusAndAppointmentDateBetween(Appointment.AppointmentStatus status,
+                                                            LocalDate startDate,
+                                                            LocalDate endDate);
+
+    // Appointments starting in [start, end] that have no reminder log of the given type yet
+    @Query("SELECT a FROM Appointment a WHERE a.status = :status " +
+           "AND a.appointmentDate >= :startDate AND a.appointmentDate <= :endDate " +
+           "AND (a.appointmentDate > :startDate OR a.startTime >= :startTime) " +
+           "AND (a.appointmentDate < :endDate OR a.startTime <= :endTime) " +
+           "AND NOT EXISTS (SELECT r.id FROM ReminderLog r WHERE r.appointmentId = a.id AND r.type = :type)")
+    List<Appointment> findWithoutReminder(@Param("status") Appointment.AppointmentStatus status,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("startTime") LocalTime startTime,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("endTime") LocalTime endTime,
+                                          @Param("type") ReminderLog.ReminderType type);
+
+    // The PENDING appointments among ids that have no reminder log of the given type yet
+    @Query("SELECT a FROM Appointment a WHERE a.id IN :ids AND a.status = 'PENDING' " +
+           "AND NOT EXISTS (SELECT r.id FROM ReminderLog r WHERE r.appointmentId = a.id AND r.type = :type)")
+    List<Appointment> findPendingWithoutReminder(@Param("ids") Collection<UUID> ids,
+                                                 @Param("type") ReminderLog.ReminderType type);
+
+    @Query("SELECT a.status AS status, COUNT(a) AS appointmentCount, COALESCE(SUM(COALESCE(a.price, s.price)), 0) AS revenue " +
+           "FROM Appointment a LEFT JOIN Service s ON s.id = a.serviceId " +
+           "WHERE a.userId = :userId GROUP BY a.status")
+    List<AppointmentStatusTotals> sumByStatus(@Param("userId") UUID userId);
+
+    @Query("SELECT a.userId AS userId, a.status AS status, COUNT(a) AS appointmentCount, " +
+           "COALESCE(SUM(COALESCE(a.price, s.price)), 0) AS revenue " +
+           "FROM Appointment a LEFT JOIN Service s ON s.id = a.serviceId " +
+           "GROUP BY a.userId, a.status")
+    List<AppointmentStatusTotals> sumByUserAndStatus();
+
+    @Query("SELECT a.userId AS userId, a.appointmentDate AS appointmentDate, a.status AS status, " +
+           "COUNT(a) AS appointmentCount, COALESCE(SUM(COALESCE(a.price, s.price)), 0) AS revenue " +
+           "FROM Appointment a LEFT JOIN Service s ON s.id = a.serviceId " +
+           "WHERE a.appointmentDate >= :startDate AND a.appointmentDate <= :endDate " +
+           "GROUP BY a.userId, a.appointmentDate, a.status")
+    List<AppointmentDailyTotals> sumByUserDateAndStatus(@Param("startDate") LocalDate startDate,
+                                                        @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT MIN(a.appointmentDate) FROM Appointment a")
+    LocalDate findEarliestAppointmentDate();
+
+    @Query("SELECT MAX(a.appointmentDate) FROM Appointment a")
+    LocalDate findLatestAppointmentDate();
 
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.userId = :userId AND a.status = 'NO_SHOW'")
     long countNoShowsByUserId(@Param("userId") UUID userId);
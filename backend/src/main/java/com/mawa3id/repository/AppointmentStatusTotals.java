@@ -0,0 +1,16 @@
+package com.mawa3id.repository;
+
+import com.mawa3id.model.Appointment;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface AppointmentStatusTotals {
+    UUID getUserId();
+
+    Appointment.AppointmentStatus getStatus();
+
+    long getAppointmentCount();
+
+    BigDecimal getRevenue();
+}
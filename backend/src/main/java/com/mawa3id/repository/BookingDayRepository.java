@@ -0,0 +1,28 @@
+package com.mawa3id.repository;
+
+import com.mawa3id.model.BookingDay;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BookingDayRepository extends JpaRepository<BookingDay, UUID> {
+    boolean existsByUserIdAndAppointmentDate(UUID userId, LocalDate appointmentDate);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM BookingDay d WHERE d.userId = :userId AND d.appointmentDate = :appointmentDate")
+    Optional<BookingDay> lockByUserIdAndAppointmentDate(@Param("userId") UUID userId,
+                                                        @Param("appointmentDate") LocalDate appointmentDate);
+
+    @Modifying
+    @Query("DELETE FROM BookingDay d WHERE d.appointmentDate < :date")
+    int deleteByAppointmentDateBefore(@Param("date") LocalDate date);
+}
@@ -0,0 +1,32 @@
+package com.mawa3id.repository;
+
+import com.mawa3id.model.BusinessStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BusinessStatRepository extends JpaRepository<BusinessStat, UUID> {
+    List<BusinessStat> findByUserId(UUID userId);
+
+    // Single-statement upsert, so concurrent first writes for a business cannot collide on the unique key
+    @Modifying
+    @Query(value = "INSERT INTO business_stats (id, user_id, status, appointment_count, revenue, updated_at) " +
+                   "VALUES (:id, :userId, :status, :countDelta, :revenueDelta, :now) " +
+                   "ON DUPLICATE KEY UPDATE appointment_count = appointment_count + :countDelta, " +
+                   "revenue = revenue + :revenueDelta, updated_at = :now",
+           nativeQuery = true)
+    int increment(@Param("id") UUID id,
+                  @Param("userId") UUID userId,
+                  @Param("status") String status,
+                  @Param("countDelta") long countDelta,
+                  @Param("revenueDelta") BigDecimal revenueDelta,
+                  @Param("now") LocalDateTime now);
+}
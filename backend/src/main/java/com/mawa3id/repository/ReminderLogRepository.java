@@ -1,19 +1,33 @@
 package com.mawa3id.repository;
 
 import com.mawa3id.model.ReminderLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ReminderLogRepository extends JpaRepository<ReminderLog, UUID> {
     List<ReminderLog> findByAppointmentId(UUID appointmentId);
+
+    List<ReminderLog> findByAppointmentIdIn(Collection<UUID> appointmentIds);
     
     @Query("SELECT r FROM ReminderLog r WHERE r.appointmentId = :appointmentId AND r.type = :type")
-    List<ReminderLog> findByAppointmentIdAndType(@Param("appointmentId") UUID appointmentId,
+    Optional<ReminderLog> findByAppointmentIdAndType(@Param("appointmentId") UUID appointmentId,
                                                   @Param("type") ReminderLog.ReminderType type);
+
+    @Query("SELECT r FROM ReminderLog r WHERE r.status = 'FAILED' AND r.nextAttemptAt <= :now ORDER BY r.nextAttemptAt")
+    List<ReminderLog> findDueForRetry(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE ReminderLog r SET r.status = 'GAVE_UP', r.nextAttemptAt = null WHERE r.id IN :ids")
+    int markGaveUp(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,22 @@
+package com.mawa3id.repository;
+
+import com.mawa3id.model.ReminderLog;
+import com.mawa3id.model.ReminderTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReminderTemplateRepository extends JpaRepository<ReminderTemplate, UUID> {
+    List<ReminderTemplate> findByUserId(UUID userId);
+
+    List<ReminderTemplate> findByUserIdAndLocale(UUID userId, String locale);
+
+    Optional<ReminderTemplate> findByUserIdAndScopeIdAndTypeAndLocale(UUID userId,
+                                                                      UUID scopeId,
+                                                                      ReminderLog.ReminderType type,
+                                                                      String locale);
+}
@@ -0,0 +1,23 @@
+package com.mawa3id.repository;
+
+import com.mawa3id.model.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    // Renews a lease we hold or takes over one that has expired; 0 means someone else holds it
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+           "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("expiresAt") LocalDateTime expiresAt,
+                @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,40 @@
+package com.mawa3id.repository;
+
+import com.mawa3id.model.SmsOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SmsOutboxRepository extends JpaRepository<SmsOutboxMessage, UUID> {
+
+    // Rows locked by another worker are skipped rather than waited on
+    @Query(value = "SELECT * FROM sms_outbox WHERE status = 'PENDING' AND available_at <= :now " +
+                   "ORDER BY available_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<SmsOutboxMessage> lockAvailable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE SmsOutboxMessage m SET m.status = 'SENT', m.sentAt = :sentAt, m.lastError = null WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE SmsOutboxMessage m SET m.status = 'FAILED', m.lastError = :lastError WHERE m.id = :id")
+    int markFailed(@Param("id") UUID id, @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("UPDATE SmsOutboxMessage m SET m.availableAt = :availableAt WHERE m.id IN :ids AND m.status = 'PENDING'")
+    int extendLease(@Param("ids") Collection<UUID> ids, @Param("availableAt") LocalDateTime availableAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM sms_outbox WHERE status IN ('SENT', 'FAILED') AND created_at < :createdBefore LIMIT :limit",
+           nativeQuery = true)
+    int deleteFinishedBefore(@Param("createdBefore") LocalDateTime createdBefore, @Param("limit") int limit);
+}
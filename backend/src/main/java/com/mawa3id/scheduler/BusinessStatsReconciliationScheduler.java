@@ -0,0 +1,51 @@
+package com.mawa3id.scheduler;
+
+import com.mawa3id.service.AnalyticsRollupService;
+import com.mawa3id.service.BusinessStatsService;
+import com.mawa3id.service.ClusterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BusinessStatsReconciliationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessStatsReconciliationScheduler.class);
+
+    @Autowired
+    private BusinessStatsService businessStatsService;
+
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    // Startup run backfills counters for data created before they existed
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.analytics.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        if (!clusterService.isLeader()) {
+            return;
+        }
+        logger.info("Starting business stats reconciliation");
+
+        try {
+            int drifted = businessStatsService.reconcile();
+            if (drifted > 0) {
+                logger.warn("Business stats reconciliation corrected {} drifted counters", drifted);
+            } else {
+                logger.info("Business stats reconciliation found no drift");
+            }
+
+            int repairedMonths = analyticsRollupService.backfill();
+            logger.info("Analytics rollup backfill repaired {} months", repairedMonths);
+        } catch (Exception e) {
+            logger.error("Error in business stats reconciliation", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mawa3id.scheduler;
+
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.ReminderLog;
+import com.mawa3id.repository.AppointmentRepository;
+import com.mawa3id.repository.ReminderLogRepository;
+import com.mawa3id.service.ClusterService;
+import com.mawa3id.service.ReminderDispatcher;
+import com.mawa3id.service.ReminderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class ReminderRetryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderRetryScheduler.class);
+
+    @Autowired
+    private ReminderLogRepository reminderLogRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private ReminderDispatcher reminderDispatcher;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Value("${app.reminders.retry.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.reminders.retry.poll-interval-ms:60000}")
+    public void retryFailedReminders() {
+        if (!clusterService.isLeader()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<ReminderLog> due = reminderLogRepository.findDueForRetry(now, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                return;
+            }
+
+            Map<UUID, Appointment> appointments = appointmentRepository
+                    .findAllById(due.stream().map(ReminderLog::getAppointmentId).distinct().toList())
+                    .stream()
+                    .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+            List<ReminderDispatcher.ReminderJob> jobs = new ArrayList<>();
+            List<UUID> abandoned = new ArrayList<>();
+            for (ReminderLog log : due) {
+                Appointment appointment = appointments.get(log.getAppointmentId());
+                if (appointment == null
+                        || appointment.getStatus() != Appointment.AppointmentStatus.PENDING
+                        || !LocalDateTime.of(appointment.getAppointmentDate(), appointment.getStartTime()).isAfter(now)) {
+                    abandoned.add(log.getId());
+                    continue;
+                }
+                jobs.add(new ReminderDispatcher.ReminderJob(appointment, log.getType()));
+            }
+
+            reminderService.giveUp(abandoned);
+            if (!jobs.isEmpty()) {
+                reminderDispatcher.dispatch(jobs);
+            }
+            logger.info("Retried {} failed reminders, gave up on {}", jobs.size(), abandoned.size());
+        } catch (Exception e) {
+            logger.error("Error in reminder retry processing", e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.mawa3id.scheduler;
+
+import com.mawa3id.event.AppointmentChangedEvent;
+import com.mawa3id.event.ClusterMembershipChangedEvent;
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.ReminderLog;
+import com.mawa3id.repository.AppointmentRepository;
+import com.mawa3id.service.ClusterService;
+import com.mawa3id.service.ReminderDispatcher;
+import com.mawa3id.service.ReminderService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+// Holds the reminder and no-show deadlines of upcoming PENDING appointments and
+// fires each one at its due time. Deadlines are checked against the database
+// when they fire, so cancelled or deleted appointments simply fall through.
+@Component
+public class ReminderTimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderTimer.class);
+
+    public enum DeadlineType {
+        FIRST_REMINDER(24, ReminderLog.ReminderType.FIRST_REMINDER),
+        FOLLOW_UP(6, ReminderLog.ReminderType.FOLLOW_UP),
+        NO_SHOW(0, null);
+
+        private final int hoursBeforeStart;
+        private final ReminderLog.ReminderType reminderType;
+
+        DeadlineType(int hoursBeforeStart, ReminderLog.ReminderType reminderType) {
+            this.hoursBeforeStart = hoursBeforeStart;
+            this.reminderType = reminderType;
+        }
+    }
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private ReminderDispatcher reminderDispatcher;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Value("${app.reminders.horizon-hours:48}")
+    private int horizonHours;
+
+    private final DelayQueue<Deadline> queue = new DelayQueue<>();
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int added = seed();
+        logger.info("Reminder timer seeded with {} deadlines", added);
+
+        worker = new Thread(this::run, "mawa3id-reminder-timer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    // Queues the deadlines of this node's partition inside the horizon; already queued deadlines
+    // are skipped. Reminder deadlines come from one anti-join per type, so appointments that
+    // already have that reminder's log are never loaded.
+    public int seed() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plusHours(horizonHours);
+        int added = 0;
+        for (DeadlineType type : DeadlineType.values()) {
+            List<Appointment> appointments = type.reminderType == null
+                    ? appointmentRepository.findByStatusAndAppointmentDateBetween(
+                            Appointment.AppointmentStatus.PENDING, now.toLocalDate(), horizon.toLocalDate())
+                    : appointmentRepository.findWithoutReminder(Appointment.AppointmentStatus.PENDING,
+                            now.toLocalDate(), now.toLocalTime(), horizon.toLocalDate(), horizon.toLocalTime(),
+                            type.reminderType);
+            for (Appointment appointment : appointments) {
+                if (clusterService.ownsUser(appointment.getUserId())) {
+                    added += schedule(appointment, EnumSet.of(type));
+                }
+            }
+        }
+        return added;
+    }
+
+    // Drops the deadlines that moved to another node, then picks up the ones that moved here.
+    // Deadlines queued from local changes to other partitions go too; their owner reseeds them.
+    @EventListener
+    public void onMembershipChanged(ClusterMembershipChangedEvent event) {
+        int dropped = 0;
+        for (Deadline deadline : queue) {
+            if (!clusterService.ownsUser(deadline.userId()) && queue.remove(deadline)) {
+                scheduled.remove(deadline.key());
+                dropped++;
+            }
+        }
+        int added = seed();
+        logger.info("Dropped {} and reseeded {} reminder deadlines for partition {} of {}",
+                dropped, added, event.getPartitionIndex(), event.getPartitionCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getChangeType() == AppointmentChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+        appointmentRepository.findById(event.getAppointmentId())
+                .ifPresent(appointment -> schedule(appointment, EnumSet.allOf(DeadlineType.class)));
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private int schedule(Appointment appointment, Set<DeadlineType> wanted) {
+        if (appointment.getStatus() != Appointment.AppointmentStatus.PENDING) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = LocalDateTime.of(appointment.getAppointmentDate(), appointment.getStartTime());
+        if (start.isAfter(now.plusHours(horizonHours))) {
+            return 0;
+        }
+
+        int added = 0;
+        DeadlineType[] types = DeadlineType.values();
+        for (int i = 0; i < types.length; i++) {
+            if (!wanted.contains(types[i])) {
+                continue;
+            }
+            // A reminder whose successor is already due is no longer worth sending
+            if (i + 1 < types.length && !start.minusHours(types[i + 1].hoursBeforeStart).isAfter(now)) {
+                continue;
+            }
+            Deadline deadline = new Deadline(appointment.getId(), appointment.getUserId(), types[i],
+                    start.minusHours(types[i].hoursBeforeStart).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            if (scheduled.add(deadline.key())) {
+                queue.add(deadline);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // Block for the next due deadline, then take everything else that is already due
+                List<Deadline> due = new ArrayList<>();
+                due.add(queue.take());
+                queue.drainTo(due);
+                fire(due);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Error firing reminder deadlines", e);
+            }
+        }
+    }
+
+    // Loads the due batch with one query per deadline type: reminders through the anti-join,
+    // so appointments that were cancelled, deleted or already have the log drop out in the database
+    private void fire(List<Deadline> due) {
+        Map<DeadlineType, List<UUID>> idsByType = new EnumMap<>(DeadlineType.class);
+        for (Deadline deadline : due) {
+            scheduled.remove(deadline.key());
+            idsByType.computeIfAbsent(deadline.type(), type -> new ArrayList<>()).add(deadline.appointmentId());
+        }
+
+        List<ReminderDispatcher.ReminderJob> jobs = new ArrayList<>();
+        for (Map.Entry<DeadlineType, List<UUID>> entry : idsByType.entrySet()) {
+            DeadlineType type = entry.getKey();
+            if (type.reminderType != null) {
+                for (Appointment appointment : appointmentRepository.findPendingWithoutReminder(entry.getValue(), type.reminderType)) {
+                    jobs.add(new ReminderDispatcher.ReminderJob(appointment, type.reminderType));
+                }
+                continue;
+            }
+            for (Appointment appointment : appointmentRepository.findAllById(entry.getValue())) {
+                // Other partitions' no-shows are left to their owner or the leader's sweep
+                if (appointment.getStatus() == Appointment.AppointmentStatus.PENDING
+                        && clusterService.ownsUser(appointment.getUserId())) {
+                    reminderService.markNoShow(appointment);
+                }
+            }
+        }
+
+        if (!jobs.isEmpty()) {
+            reminderDispatcher.dispatch(jobs);
+        }
+    }
+
+    private record Deadline(UUID appointmentId, UUID userId, DeadlineType type, long dueAtMillis) implements Delayed {
+
+        String key() {
+            return appointmentId + ":" + type;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((Deadline) other).dueAtMillis);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.mawa3id.scheduler;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+// Scheduled jobs can be switched off (app.scheduling.enabled=false), e.g. for integration tests
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+
+    // Declared explicitly because the dedicated schedulers below make Boot's default back off;
+    // still sized by spring.task.scheduling.*
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    // SmsOutboxWorker.drain blocks for as long as a batch is in flight, so it gets its own thread
+    @Bean
+    public ThreadPoolTaskScheduler smsOutboxScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.poolSize(1).threadNamePrefix("mawa3id-sms-drain-").build();
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler clusterHeartbeatScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.poolSize(1).threadNamePrefix("mawa3id-heartbeat-").build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.mawa3id.scheduler;
+
+import com.mawa3id.model.SmsOutboxMessage;
+import com.mawa3id.service.ClusterService;
+import com.mawa3id.service.ReminderService;
+import com.mawa3id.service.SmsNotificationService;
+import com.mawa3id.service.SmsOutboxService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Drains sms_outbox: claims a batch in a short transaction, sends it with at most
+// app.sms.outbox.concurrency calls in flight, then records all outcomes in one write.
+// The lease on unfinished rows is renewed while the batch is in flight, since rate
+// limiter waits can hold a message longer than one lease.
+@Component
+public class SmsOutboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsOutboxWorker.class);
+
+    @Autowired
+    private SmsOutboxService smsOutboxService;
+
+    @Autowired
+    private SmsNotificationService smsNotificationService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Value("${app.sms.outbox.concurrency:32}")
+    private int concurrency;
+
+    @Value("${app.sms.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.sms.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${app.sms.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${app.sms.outbox.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "mawa3id-sms-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${app.sms.outbox.poll-interval-ms:1000}", scheduler = "smsOutboxScheduler")
+    public void drain() {
+        try {
+            List<SmsOutboxMessage> batch;
+            do {
+                batch = smsOutboxService.claim(batchSize);
+                if (!batch.isEmpty()) {
+                    reminderService.recordDeliveries(send(batch));
+                }
+            } while (batch.size() == batchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Error draining SMS outbox", e);
+        }
+    }
+
+    // Sent and failed rows are finished (retries go through a new row), so they are dropped after the retention period
+    @Scheduled(cron = "${app.sms.outbox.purge-cron:0 15 4 * * *}")
+    public void purgeFinished() {
+        if (!clusterService.isLeader()) {
+            return;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            int purged = 0;
+            int deleted;
+            do {
+                deleted = smsOutboxService.purgeFinished(cutoff, purgeBatchSize);
+                purged += deleted;
+            } while (deleted == purgeBatchSize);
+            logger.info("Purged {} finished SMS outbox rows created before {}", purged, cutoff);
+        } catch (Exception e) {
+            logger.error("Error purging SMS outbox", e);
+        }
+    }
+
+    // The fixed pool bounds the calls in flight; the rest of the batch waits in its queue
+    private List<SmsOutboxMessage> send(List<SmsOutboxMessage> batch) throws InterruptedException {
+        Map<UUID, Future<SmsOutboxMessage>> futures = new LinkedHashMap<>();
+        for (SmsOutboxMessage message : batch) {
+            futures.put(message.getId(), executor.submit(() -> send(message)));
+        }
+
+        long renewEveryNanos = TimeUnit.MILLISECONDS.toNanos(leaseMs) / 2;
+        long renewAt = System.nanoTime() + renewEveryNanos;
+        List<SmsOutboxMessage> delivered = new ArrayList<>(futures.size());
+        for (Future<SmsOutboxMessage> future : futures.values()) {
+            while (true) {
+                try {
+                    delivered.add(future.get(Math.max(0, renewAt - System.nanoTime()), TimeUnit.NANOSECONDS));
+                    break;
+                } catch (TimeoutException e) {
+                    smsOutboxService.renewLease(unfinished(futures));
+                    renewAt = System.nanoTime() + renewEveryNanos;
+                } catch (ExecutionException e) {
+                    // Left claimed; the lease expires and the message is picked up again
+                    logger.error("SMS outbox task failed", e.getCause());
+                    break;
+                }
+            }
+        }
+        return delivered;
+    }
+
+    private static List<UUID> unfinished(Map<UUID, Future<SmsOutboxMessage>> futures) {
+        List<UUID> ids = new ArrayList<>();
+        futures.forEach((id, future) -> {
+            if (!future.isDone()) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private SmsOutboxMessage send(SmsOutboxMessage message) {
+        try {
+            smsNotificationService.sendSMS(message.getToPhone(), message.getBody());
+            message.setStatus(SmsOutboxMessage.OutboxStatus.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+        } catch (Exception e) {
+            logger.error("Failed to send outbox message " + message.getId(), e);
+            message.setStatus(SmsOutboxMessage.OutboxStatus.FAILED);
+            message.setLastError(e.getMessage());
+        }
+        return message;
+    }
+}
@@ -0,0 +1,13 @@
+package com.mawa3id.security;
+
+import java.security.Principal;
+import java.util.UUID;
+
+// Identity carried by a verified access token; set as the authentication principal
+public record JwtPrincipal(UUID userId, String email, long expiresAtMillis) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,23 +1,39 @@
 package com.mawa3id.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final String TOKEN_TYPE_CLAIM = "type";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+    private static final String FAMILY_CLAIM = "fid";
+
+    // familyId is shared by every refresh token rotated from the same login
+    public record RefreshToken(UUID userId, String email, String tokenId, String familyId, long expiresAtMillis) {
+    }
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -27,8 +43,22 @@ public class JwtTokenProvider {
     @Value("${jwt.token.refresh.expiration}")
     private long refreshTokenExpirationInMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Recently verified tokens by SHA-256 of the token, kept until the token expires.
+    // Lock-free reads; when full, expired entries go first, then arbitrary ones.
+    private final Map<String, JwtPrincipal> verified = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     public String generateToken(UUID userId, String email) {
@@ -37,12 +67,24 @@ public class JwtTokenProvider {
         return createToken(claims, email, jwtExpirationInMs);
     }
 
+    // Starts a new token family, as on login
     public String generateRefreshToken(UUID userId, String email) {
+        return generateRefreshToken(userId, email, UUID.randomUUID().toString());
+    }
+
+    public String generateRefreshToken(UUID userId, String email, String familyId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId.toString());
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE);
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        claims.put(FAMILY_CLAIM, familyId);
         return createToken(claims, email, refreshTokenExpirationInMs);
     }
 
+    public long getRefreshTokenExpirationInMs() {
+        return refreshTokenExpirationInMs;
+    }
+
     private String createToken(Map<String, Object> claims, String subject, long expiration) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
@@ -52,52 +94,87 @@ public class JwtTokenProvider {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public UUID getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return UUID.fromString((String) claims.get("userId"));
-    }
-
-    public String getEmailFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
-    }
-
-    public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
-    }
+    // Verifies the signature and expiry once and returns the token's identity; empty if the token is invalid
+    public Optional<JwtPrincipal> authenticate(String token) {
+        long now = System.currentTimeMillis();
+        String key = hash(token);
+        JwtPrincipal cached = verified.get(key);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                return Optional.of(cached);
+            }
+            verified.remove(key, cached);
+            return Optional.empty();
+        }
 
-    public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
+        JwtPrincipal principal;
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            // Refresh tokens are only accepted by the refresh endpoint
+            if (REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM))) {
+                return Optional.empty();
+            }
+            principal = new JwtPrincipal(
+                    UUID.fromString((String) claims.get("userId")),
+                    claims.getSubject(),
+                    claims.getExpiration().getTime());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+        verified.put(key, principal);
+        if (verified.size() > cacheMaxEntries) {
+            trim(now);
+        }
+        return Optional.of(principal);
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Optional<RefreshToken> parseRefreshToken(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            if (!REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM)) || claims.getId() == null) {
+                return Optional.empty();
+            }
+            // Tokens issued before families existed start their own
+            String familyId = claims.get(FAMILY_CLAIM) instanceof String family ? family : claims.getId();
+            return Optional.of(new RefreshToken(
+                    UUID.fromString((String) claims.get("userId")),
+                    claims.getSubject(),
+                    claims.getId(),
+                    familyId,
+                    claims.getExpiration().getTime()));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
     }
 
-    public Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    // One thread trims at a time, down to 90% of the limit; dropped tokens are simply verified again
+    private void trim(long now) {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            verified.values().removeIf(principal -> principal.expiresAtMillis() <= now);
+            int target = cacheMaxEntries - cacheMaxEntries / 10;
+            Iterator<String> keys = verified.keySet().iterator();
+            while (verified.size() > target && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            trimming.set(false);
+        }
     }
 
-    public Boolean validateToken(String token) {
+    private static String hash(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
-
-
@@ -0,0 +1,118 @@
+package com.mawa3id.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mawa3id.util.GcraBucket;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Token buckets in front of the unauthenticated /api/public/** endpoints, one per client IP
+// and one per business, so a single client cannot turn page views into unbounded DB load.
+// Buckets that have fully refilled carry no state and are dropped by the purge.
+@Component
+public class PublicRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String PUBLIC_PREFIX = "/api/public/";
+    private static final String BOOKING_PREFIX = PUBLIC_PREFIX + "booking/";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.public-rate-limit.ip.rate-per-second:5}")
+    private double ipRatePerSecond;
+
+    @Value("${app.public-rate-limit.ip.burst:30}")
+    private int ipBurst;
+
+    @Value("${app.public-rate-limit.business.rate-per-second:50}")
+    private double businessRatePerSecond;
+
+    @Value("${app.public-rate-limit.business.burst:200}")
+    private int businessBurst;
+
+    private final Map<String, GcraBucket> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, GcraBucket> businessBuckets = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod()) || !pathWithinApp(request).startsWith(PUBLIC_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        long waitNanos = acquire(ipBuckets, request.getRemoteAddr(), ipRatePerSecond, ipBurst, now);
+        if (waitNanos <= 0) {
+            String businessId = businessId(pathWithinApp(request));
+            if (businessId != null) {
+                waitNanos = acquire(businessBuckets, businessId, businessRatePerSecond, businessBurst, now);
+            }
+        }
+
+        if (waitNanos > 0) {
+            reject(request, response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedRateString = "${app.public-rate-limit.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long now = System.nanoTime();
+        ipBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+        businessBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private static long acquire(Map<String, GcraBucket> buckets, String key, double ratePerSecond, int burst, long now) {
+        GcraBucket bucket = buckets.computeIfAbsent(key == null ? "" : key, k -> new GcraBucket(ratePerSecond, burst));
+        return bucket.tryAcquire(now);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", "Too many requests, please try again later");
+        body.put("path", request.getRequestURI());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static String pathWithinApp(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // /api/public/booking/{businessId}[/...]
+    private static String businessId(String path) {
+        if (!path.startsWith(BOOKING_PREFIX)) {
+            return null;
+        }
+        int end = path.indexOf('/', BOOKING_PREFIX.length());
+        String id = end < 0 ? path.substring(BOOKING_PREFIX.length()) : path.substring(BOOKING_PREFIX.length(), end);
+        return id.isEmpty() ? null : id.toLowerCase();
+    }
+}
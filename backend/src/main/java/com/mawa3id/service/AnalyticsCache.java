@@ -0,0 +1,77 @@
+package com.mawa3id.service;
+
+import com.mawa3id.dto.AnalyticsDTO;
+import com.mawa3id.event.AppointmentChangedEvent;
+import com.mawa3id.event.AppointmentsBatchChangedEvent;
+import com.mawa3id.util.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Dashboard analytics per business, dropped when one of its appointments changes and
+// otherwise recomputed every app.analytics.cache.ttl-ms. Hit/miss counts are logged periodically.
+@Component
+public class AnalyticsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsCache.class);
+
+    @Value("${app.analytics.cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${app.analytics.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private BoundedTtlCache<UUID, AnalyticsDTO> entries;
+
+    @PostConstruct
+    void init() {
+        entries = new BoundedTtlCache<>(maxEntries, ttlMs);
+    }
+
+    public AnalyticsDTO get(UUID userId, Supplier<AnalyticsDTO> loader) {
+        return entries.get(userId, loader);
+    }
+
+    public void invalidate(UUID userId) {
+        entries.invalidate(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentsChanged(AppointmentsBatchChangedEvent event) {
+        entries.invalidateAll(event.getUserIds());
+    }
+
+    public long getHits() {
+        return entries.getHits();
+    }
+
+    public long getMisses() {
+        return entries.getMisses();
+    }
+
+    public long getEvictions() {
+        return entries.getEvictions();
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedRateString = "${app.analytics.cache.stats-log-interval-ms:300000}")
+    public void logStats() {
+        logger.info("Analytics cache: size={}, hits={}, misses={}, evictions={}",
+                getSize(), getHits(), getMisses(), getEvictions());
+    }
+}
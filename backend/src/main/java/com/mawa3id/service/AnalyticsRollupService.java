@@ -0,0 +1,182 @@
+package com.mawa3id.service;
+
+import com.mawa3id.dto.AnalyticsSeriesPointDTO;
+import com.mawa3id.model.AnalyticsDailyBucket;
+import com.mawa3id.model.Appointment;
+import com.mawa3id.repository.AnalyticsDailyBucketRepository;
+import com.mawa3id.repository.AppointmentDailyTotals;
+import com.mawa3id.repository.AppointmentRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Component
+@Transactional
+public class AnalyticsRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsRollupService.class);
+
+    public enum Granularity {
+        DAY, WEEK, MONTH
+    }
+
+    @Autowired
+    private AnalyticsDailyBucketRepository bucketRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.analytics.max-series-days:1096}")
+    private int maxSeriesDays;
+
+    // Repairs read buckets and appointments from one snapshot and write deltas on top of live increments
+    private TransactionTemplate snapshotTransaction;
+
+    @PostConstruct
+    void init() {
+        snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public void increment(UUID userId, LocalDate date, Appointment.AppointmentStatus status,
+                          long countDelta, BigDecimal revenueDelta) {
+        bucketRepository.increment(UUID.randomUUID(), userId, date, status.name(), countDelta, revenueDelta, LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public List<AnalyticsSeriesPointDTO> getSeries(UUID userId, Granularity granularity, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxSeriesDays) {
+            throw new RuntimeException("Date range cannot exceed " + maxSeriesDays + " days");
+        }
+
+        Map<LocalDate, AnalyticsSeriesPointDTO> points = new TreeMap<>();
+        for (AnalyticsDailyBucket bucket : bucketRepository.findByUserIdAndDateRange(userId, from, to)) {
+            LocalDate periodStart = periodStart(bucket.getBucketDate(), granularity);
+            AnalyticsSeriesPointDTO point = points.computeIfAbsent(periodStart, date -> AnalyticsSeriesPointDTO.builder()
+                    .periodStart(date)
+                    .totalRevenue(BigDecimal.ZERO)
+                    .revenueLost(BigDecimal.ZERO)
+                    .build());
+            merge(point, bucket);
+        }
+
+        List<AnalyticsSeriesPointDTO> series = new ArrayList<>(points.values());
+        for (AnalyticsSeriesPointDTO point : series) {
+            long total = point.getTotalAppointments();
+            point.setNoShowRate(total > 0 ? (double) point.getNoShowAppointments() / total * 100 : 0);
+        }
+        return series;
+    }
+
+    // Checks buckets month by month against the appointments table and repairs every
+    // (business, day, status) bucket whose count or revenue differs; returns the months repaired
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int backfill() {
+        LocalDate earliest = appointmentRepository.findEarliestAppointmentDate();
+        LocalDate latest = appointmentRepository.findLatestAppointmentDate();
+        if (earliest == null) {
+            return 0;
+        }
+
+        int rebuiltMonths = 0;
+        for (LocalDate monthStart = earliest.withDayOfMonth(1); !monthStart.isAfter(latest); monthStart = monthStart.plusMonths(1)) {
+            LocalDate start = monthStart;
+            LocalDate end = monthStart.with(TemporalAdjusters.lastDayOfMonth());
+            Integer repaired = snapshotTransaction.execute(status -> repair(start, end));
+            if (repaired != null && repaired > 0) {
+                logger.info("Repaired {} analytics buckets for {} to {}", repaired, start, end);
+                rebuiltMonths++;
+            }
+        }
+        return rebuiltMonths;
+    }
+
+    // Must run in a REPEATABLE READ transaction; the correction is applied as a delta so
+    // increments committed by live bookings after the snapshot are kept
+    private int repair(LocalDate from, LocalDate to) {
+        Map<BucketKey, AnalyticsDailyBucket> stored = new HashMap<>();
+        for (AnalyticsDailyBucket bucket : bucketRepository.findByDateRange(from, to)) {
+            stored.put(new BucketKey(bucket.getUserId(), bucket.getBucketDate(), bucket.getStatus()), bucket);
+        }
+
+        int repaired = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (AppointmentDailyTotals totals : appointmentRepository.sumByUserDateAndStatus(from, to)) {
+            AnalyticsDailyBucket bucket = stored.remove(
+                    new BucketKey(totals.getUserId(), totals.getAppointmentDate(), totals.getStatus()));
+            long storedCount = bucket != null ? bucket.getAppointmentCount() : 0;
+            BigDecimal storedRevenue = bucket != null ? bucket.getRevenue() : BigDecimal.ZERO;
+            if (storedCount != totals.getAppointmentCount() || storedRevenue.compareTo(totals.getRevenue()) != 0) {
+                bucketRepository.increment(UUID.randomUUID(), totals.getUserId(), totals.getAppointmentDate(),
+                        totals.getStatus().name(), totals.getAppointmentCount() - storedCount,
+                        totals.getRevenue().subtract(storedRevenue), now);
+                repaired++;
+            }
+        }
+
+        // Buckets with no appointments left behind them
+        for (AnalyticsDailyBucket bucket : stored.values()) {
+            if (bucket.getAppointmentCount() != 0 || bucket.getRevenue().signum() != 0) {
+                bucketRepository.increment(UUID.randomUUID(), bucket.getUserId(), bucket.getBucketDate(),
+                        bucket.getStatus().name(), -bucket.getAppointmentCount(), bucket.getRevenue().negate(), now);
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    private void merge(AnalyticsSeriesPointDTO point, AnalyticsDailyBucket bucket) {
+        long count = bucket.getAppointmentCount();
+        point.setTotalAppointments(point.getTotalAppointments() + count);
+        switch (bucket.getStatus()) {
+            case PENDING -> point.setPendingAppointments(point.getPendingAppointments() + count);
+            case CONFIRMED -> {
+                point.setConfirmedAppointments(point.getConfirmedAppointments() + count);
+                point.setTotalRevenue(point.getTotalRevenue().add(bucket.getRevenue()));
+            }
+            case CANCELLED -> point.setCancelledAppointments(point.getCancelledAppointments() + count);
+            case NO_SHOW -> {
+                point.setNoShowAppointments(point.getNoShowAppointments() + count);
+                point.setRevenueLost(point.getRevenueLost().add(bucket.getRevenue()));
+            }
+        }
+    }
+
+    private LocalDate periodStart(LocalDate date, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private record BucketKey(UUID userId, LocalDate date, Appointment.AppointmentStatus status) {
+    }
+}
@@ -2,14 +2,17 @@ package com.mawa3id.service;
 
 import com.mawa3id.dto.AnalyticsDTO;
 import com.mawa3id.model.Appointment;
+import com.mawa3id.model.BusinessStat;
 import com.mawa3id.repository.AppointmentRepository;
-import com.mawa3id.repository.ServiceRepository;
+import com.mawa3id.repository.AppointmentStatusTotals;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -20,53 +23,54 @@ public class AnalyticsService {
     private AppointmentRepository appointmentRepository;
 
     @Autowired
-    private ServiceRepository serviceRepository;
+    private BusinessStatsService businessStatsService;
+
+    @Autowired
+    private AnalyticsCache analyticsCache;
 
     public AnalyticsDTO getAnalytics(UUID userId) {
-        List<Appointment> appointments = appointmentRepository.findByUserId(userId);
+        return analyticsCache.get(userId, () -> computeAnalytics(userId));
+    }
+
+    private AnalyticsDTO computeAnalytics(UUID userId) {
+        Map<Appointment.AppointmentStatus, Long> counts = new EnumMap<>(Appointment.AppointmentStatus.class);
+        Map<Appointment.AppointmentStatus, BigDecimal> revenue = new EnumMap<>(Appointment.AppointmentStatus.class);
+
+        List<BusinessStat> stats = businessStatsService.getStats(userId);
+        if (!stats.isEmpty()) {
+            for (BusinessStat stat : stats) {
+                counts.put(stat.getStatus(), stat.getAppointmentCount());
+                revenue.put(stat.getStatus(), stat.getRevenue());
+            }
+        } else {
+            // Counters are not built yet for this business (before the first reconciliation)
+            for (AppointmentStatusTotals totals : appointmentRepository.sumByStatus(userId)) {
+                counts.put(totals.getStatus(), totals.getAppointmentCount());
+                revenue.put(totals.getStatus(), totals.getRevenue());
+            }
+        }
 
-        long total = appointments.size();
-        long confirmed = appointments.stream()
-                .filter(a -> a.getStatus() == Appointment.AppointmentStatus.CONFIRMED)
-                .count();
-        long cancelled = appointments.stream()
-                .filter(a -> a.getStatus() == Appointment.AppointmentStatus.CANCELLED)
-                .count();
-        long noShow = appointments.stream()
-                .filter(a -> a.getStatus() == Appointment.AppointmentStatus.NO_SHOW)
-                .count();
-        long pending = appointments.stream()
-                .filter(a -> a.getStatus() == Appointment.AppointmentStatus.PENDING)
-                .count();
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        long confirmed = counts.getOrDefault(Appointment.AppointmentStatus.CONFIRMED, 0L);
+        long cancelled = counts.getOrDefault(Appointment.AppointmentStatus.CANCELLED, 0L);
+        long noShow = counts.getOrDefault(Appointment.AppointmentStatus.NO_SHOW, 0L);
+        long pending = counts.getOrDefault(Appointment.AppointmentStatus.PENDING, 0L);
 
         double noShowRate = total > 0 ? (double) noShow / total * 100 : 0;
         double confirmationRate = total > 0 ? (double) confirmed / total * 100 : 0;
         double cancellationRate = total > 0 ? (double) cancelled / total * 100 : 0;
 
         // Calculate revenue lost (appointments marked as NO_SHOW)
-        BigDecimal revenueLost = appointments.stream()
-                .filter(a -> a.getStatus() == Appointment.AppointmentStatus.NO_SHOW)
-                .map(a -> serviceRepository.findById(a.getServiceId()))
-                .filter(java.util.Optional::isPresent)
-                .map(s -> s.get().getPrice())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal revenueLost = revenue.getOrDefault(Appointment.AppointmentStatus.NO_SHOW, BigDecimal.ZERO);
 
         // Estimate revenue saved (assuming 20% reduction in no-shows as industry standard)
         BigDecimal estimatedNoShowReduction = new BigDecimal("0.20");
-        BigDecimal revenueSaved = appointments.stream()
-                .map(a -> serviceRepository.findById(a.getServiceId()))
-                .filter(java.util.Optional::isPresent)
-                .map(s -> s.get().getPrice())
+        BigDecimal revenueSaved = revenue.values().stream()
                 .reduce(BigDecimal.ZERO, BigDecimal::add)
                 .multiply(estimatedNoShowReduction)
                 .multiply(new BigDecimal(String.valueOf(noShowRate / 100)));
 
-        BigDecimal totalRevenue = appointments.stream()
-                .filter(a -> a.getStatus() == Appointment.AppointmentStatus.CONFIRMED)
-                .map(a -> serviceRepository.findById(a.getServiceId()))
-                .filter(java.util.Optional::isPresent)
-                .map(s -> s.get().getPrice())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalRevenue = revenue.getOrDefault(Appointment.AppointmentStatus.CONFIRMED, BigDecimal.ZERO);
 
         return AnalyticsDTO.builder()
                 .totalAppointments(total)
@@ -0,0 +1,113 @@
+package com.mawa3id.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mawa3id.model.Appointment;
+import com.mawa3id.repository.AppointmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Component
+@Transactional(readOnly = true)
+public class AppointmentExportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String[] CSV_COLUMNS = {
+            "id", "serviceId", "customerName", "customerPhone", "appointmentDate",
+            "startTime", "endTime", "status", "createdAt", "updatedAt"
+    };
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void exportAppointments(UUID userId, Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+
+        try (Stream<Appointment> appointments = appointmentRepository.streamByUserId(userId)) {
+            Iterator<Appointment> iterator = appointments.iterator();
+            int rows = 0;
+            while (iterator.hasNext()) {
+                Appointment appointment = iterator.next();
+                Map<String, Object> row = toRow(appointment);
+                entityManager.detach(appointment);
+
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private Map<String, Object> toRow(Appointment appointment) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", appointment.getId());
+        row.put("serviceId", appointment.getServiceId());
+        row.put("customerName", appointment.getCustomerName());
+        row.put("customerPhone", appointment.getCustomerPhone());
+        row.put("appointmentDate", appointment.getAppointmentDate());
+        row.put("startTime", appointment.getStartTime());
+        row.put("endTime", appointment.getEndTime());
+        row.put("status", appointment.getStatus().name());
+        row.put("createdAt", appointment.getCreatedAt());
+        row.put("updatedAt", appointment.getUpdatedAt());
+        return row;
+    }
+
+    private void writeCsvRow(Writer writer, Map<String, Object> row) throws IOException {
+        boolean first = true;
+        for (Object value : row.values()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
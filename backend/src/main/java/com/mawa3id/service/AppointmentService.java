@@ -1,28 +1,35 @@
 package com.mawa3id.service;
 
 import com.mawa3id.dto.AppointmentDTO;
+import com.mawa3id.dto.AppointmentPageDTO;
+import com.mawa3id.event.AppointmentChangedEvent;
 import com.mawa3id.model.Appointment;
-import com.mawa3id.model.Availability;
 import com.mawa3id.model.Service;
 import com.mawa3id.repository.AppointmentRepository;
-import com.mawa3id.repository.AvailabilityRepository;
 import com.mawa3id.repository.ServiceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Component
 @Transactional
 public class AppointmentService {
 
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
     @Autowired
     private AppointmentRepository appointmentRepository;
 
@@ -30,9 +37,40 @@ public class AppointmentService {
     private ServiceRepository serviceRepository;
 
     @Autowired
-    private AvailabilityRepository availabilityRepository;
+    private BookingScheduleIndex bookingScheduleIndex;
+
+    @Autowired
+    private BookingDayGuard bookingDayGuard;
+
+    @Autowired
+    private BookingLocks bookingLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
+    @Autowired
+    private BusinessStatsService businessStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.appointments.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.appointments.max-page-size:200}")
+    private int maxPageSize;
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Appointment createAppointment(UUID userId, AppointmentDTO request) {
+        // Dashboard bookings skip the availability check but still take the day guard,
+        // so a concurrent public booking on any node cannot overlap them
+        bookingDayGuard.ensureExists(userId, request.getAppointmentDate());
+        return bookingLocks.withLock(userId, request.getAppointmentDate(), () ->
+                transactionTemplate.execute(status -> doCreateAppointment(userId, request))
+        );
+    }
+
+    private Appointment doCreateAppointment(UUID userId, AppointmentDTO request) {
         Service service = serviceRepository.findById(request.getServiceId())
                 .orElseThrow(() -> new RuntimeException("Service not found"));
 
@@ -50,11 +88,28 @@ public class AppointmentService {
         appointment.setEndTime(resolveEndTime(request, service));
         appointment.setStatus(Appointment.AppointmentStatus.PENDING);
         appointment.setConfirmationToken(UUID.randomUUID().toString());
+        appointment.setPrice(service.getPrice());
 
-        return appointmentRepository.save(appointment);
+        validateTimes(appointment.getStartTime(), appointment.getEndTime());
+        reserveTime(userId, appointment.getAppointmentDate(), appointment.getStartTime(), appointment.getEndTime(), null);
+
+        Appointment saved = appointmentRepository.save(appointment);
+        businessStatsService.recordCreated(saved);
+        publishChange(saved, AppointmentChangedEvent.ChangeType.CREATED);
+        bookingScheduleIndex.onAppointmentSaved(saved);
+        return saved;
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Appointment createPublicAppointment(UUID businessId, AppointmentDTO request) {
+        // The lock must cover the commit, so the transaction is opened inside it
+        bookingDayGuard.ensureExists(businessId, request.getAppointmentDate());
+        return bookingLocks.withLock(businessId, request.getAppointmentDate(), () ->
+                transactionTemplate.execute(status -> doCreatePublicAppointment(businessId, request))
+        );
+    }
+
+    private Appointment doCreatePublicAppointment(UUID businessId, AppointmentDTO request) {
         Service service = serviceRepository.findById(request.getServiceId())
                 .orElseThrow(() -> new RuntimeException("Service not found"));
 
@@ -63,12 +118,11 @@ public class AppointmentService {
         }
 
         LocalTime endTime = resolveEndTime(request, service);
-        if (!endTime.isAfter(request.getStartTime())) {
-            throw new RuntimeException("End time must be after start time");
-        }
+        validateTimes(request.getStartTime(), endTime);
 
         validateWithinAvailability(businessId, request.getAppointmentDate(), request.getStartTime(), endTime);
         validateNoOverlap(businessId, request.getAppointmentDate(), request.getStartTime(), endTime);
+        reserveTime(businessId, request.getAppointmentDate(), request.getStartTime(), endTime, null);
 
         Appointment appointment = new Appointment();
         appointment.setUserId(businessId);
@@ -80,15 +134,41 @@ public class AppointmentService {
         appointment.setEndTime(endTime);
         appointment.setStatus(Appointment.AppointmentStatus.PENDING);
         appointment.setConfirmationToken(UUID.randomUUID().toString());
+        appointment.setPrice(service.getPrice());
 
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        businessStatsService.recordCreated(saved);
+        publishChange(saved, AppointmentChangedEvent.ChangeType.CREATED);
+        bookingScheduleIndex.onAppointmentSaved(saved);
+        return saved;
     }
 
     public List<AppointmentDTO> getAppointmentsByUserId(UUID userId) {
-        return appointmentRepository.findByUserId(userId)
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return appointmentRepository.findDTOsByUserId(userId);
+    }
+
+    public AppointmentPageDTO getAppointmentPage(UUID userId, LocalDate startDate, LocalDate endDate,
+                                                 String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        LocalDate from = startDate != null ? startDate : EARLIEST_DATE;
+        LocalDate to = endDate != null ? endDate : LATEST_DATE;
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<AppointmentDTO> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = appointmentRepository.findFirstPage(userId, from, to, page);
+        } else {
+            AppointmentDTO after = decodeCursor(cursor);
+            items = appointmentRepository.findPageAfter(userId, from, to,
+                    after.getAppointmentDate(), after.getStartTime(), after.getId(), page);
+        }
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            nextCursor = encodeCursor(items.get(pageSize - 1));
+        }
+        return new AppointmentPageDTO(items, nextCursor);
     }
 
     public AppointmentDTO getAppointmentById(UUID appointmentId) {
@@ -98,10 +178,7 @@ public class AppointmentService {
     }
 
     public List<AppointmentDTO> getAppointmentsByDateRange(UUID userId, LocalDate startDate, LocalDate endDate) {
-        return appointmentRepository.findByUserIdAndDateRange(userId, startDate, endDate)
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return appointmentRepository.findDTOsByUserIdAndDateRange(userId, startDate, endDate);
     }
 
     public Appointment updateAppointmentStatus(UUID appointmentId, UUID userId, String status) {
@@ -112,29 +189,41 @@ public class AppointmentService {
             throw new RuntimeException("Unauthorized to update this appointment");
         }
 
+        Appointment.AppointmentStatus newStatus;
         try {
-            appointment.setStatus(Appointment.AppointmentStatus.valueOf(status));
+            newStatus = Appointment.AppointmentStatus.valueOf(status);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid status: " + status);
         }
-
-        return appointmentRepository.save(appointment);
+        return changeStatus(appointment, newStatus);
     }
 
     public Appointment confirmAppointment(String confirmationToken) {
         Appointment appointment = appointmentRepository.findByConfirmationToken(confirmationToken)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
 
-        appointment.setStatus(Appointment.AppointmentStatus.CONFIRMED);
-        return appointmentRepository.save(appointment);
+        return changeStatus(appointment, Appointment.AppointmentStatus.CONFIRMED);
     }
 
     public Appointment cancelAppointment(String confirmationToken) {
         Appointment appointment = appointmentRepository.findByConfirmationToken(confirmationToken)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
 
-        appointment.setStatus(Appointment.AppointmentStatus.CANCELLED);
-        return appointmentRepository.save(appointment);
+        return changeStatus(appointment, Appointment.AppointmentStatus.CANCELLED);
+    }
+
+    // Every single-appointment status change goes through here, including the reminder timer's
+    // NO_SHOW, so the day guard, stats, listeners and the schedule index all see it
+    public Appointment changeStatus(Appointment appointment, Appointment.AppointmentStatus newStatus) {
+        Appointment.AppointmentStatus previousStatus = appointment.getStatus();
+        reserveIfReactivated(appointment, newStatus);
+        appointment.setStatus(newStatus);
+
+        Appointment saved = appointmentRepository.save(appointment);
+        businessStatsService.recordStatusChange(saved, previousStatus);
+        publishChange(saved, AppointmentChangedEvent.ChangeType.STATUS_CHANGED);
+        bookingScheduleIndex.onAppointmentSaved(saved);
+        return saved;
     }
 
     public void deleteAppointment(UUID appointmentId, UUID userId) {
@@ -146,62 +235,27 @@ public class AppointmentService {
         }
 
         appointmentRepository.delete(appointment);
+        businessStatsService.recordDeleted(appointment);
+        publishChange(appointment, AppointmentChangedEvent.ChangeType.DELETED);
+        bookingScheduleIndex.onAppointmentDeleted(appointment);
     }
 
-    public List<Appointment> getPendingAppointmentsForTomorrow() {
-        return appointmentRepository.findByStatusAndAppointmentDate(
-                Appointment.AppointmentStatus.PENDING,
-                LocalDate.now().plusDays(1)
-        );
+    private String encodeCursor(AppointmentDTO appointment) {
+        String position = appointment.getAppointmentDate() + "|" + appointment.getStartTime() + "|" + appointment.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
     }
 
-    public List<Appointment> getPendingAppointmentsWithin6Hours() {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime sixHoursFromNow = now.plusHours(6);
-
-        LocalDate today = now.toLocalDate();
-        LocalDate endDate = sixHoursFromNow.toLocalDate();
-        LocalTime nowTime = now.toLocalTime();
-        LocalTime endTime = sixHoursFromNow.toLocalTime();
-
-        if (today.equals(endDate)) {
-            return appointmentRepository.findByStatusAndAppointmentDateAndStartTimeBetween(
-                    Appointment.AppointmentStatus.PENDING,
-                    today,
-                    nowTime,
-                    endTime
-            );
+    private AppointmentDTO decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            AppointmentDTO after = new AppointmentDTO();
+            after.setAppointmentDate(LocalDate.parse(position[0]));
+            after.setStartTime(LocalTime.parse(position[1]));
+            after.setId(UUID.fromString(position[2]));
+            return after;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
         }
-
-        List<Appointment> result = new ArrayList<>();
-        result.addAll(appointmentRepository.findByStatusAndAppointmentDateAndStartTimeAfter(
-                Appointment.AppointmentStatus.PENDING,
-                today,
-                nowTime
-        ));
-        result.addAll(appointmentRepository.findByStatusAndAppointmentDateAndStartTimeBefore(
-                Appointment.AppointmentStatus.PENDING,
-                endDate,
-                endTime
-        ));
-        return result;
-    }
-
-    public List<Appointment> getExpiredPendingAppointments() {
-        LocalDate today = LocalDate.now();
-        LocalTime now = LocalTime.now();
-
-        List<Appointment> result = new ArrayList<>();
-        result.addAll(appointmentRepository.findByStatusAndAppointmentDateBefore(
-                Appointment.AppointmentStatus.PENDING,
-                today
-        ));
-        result.addAll(appointmentRepository.findByStatusAndAppointmentDateAndStartTimeBefore(
-                Appointment.AppointmentStatus.PENDING,
-                today,
-                now
-        ));
-        return result;
     }
 
     private LocalTime resolveEndTime(AppointmentDTO request, Service service) {
@@ -211,26 +265,45 @@ public class AppointmentService {
         return request.getStartTime().plusMinutes(service.getDurationMinutes());
     }
 
-    private void validateWithinAvailability(UUID businessId, LocalDate appointmentDate, LocalTime startTime, LocalTime endTime) {
-        int dayOfWeek = appointmentDate.getDayOfWeek().getValue() % 7;
+    private void publishChange(Appointment appointment, AppointmentChangedEvent.ChangeType changeType) {
+        eventPublisher.publishEvent(new AppointmentChangedEvent(appointment.getUserId(), appointment.getId(), changeType));
+    }
 
-        List<Availability> availabilities = availabilityRepository.findByUserIdAndDayOfWeek(businessId, dayOfWeek);
-        boolean insideAnyWindow = availabilities.stream().anyMatch(availability ->
-                !startTime.isBefore(availability.getStartTime()) && !endTime.isAfter(availability.getEndTime())
-        );
+    // Moving back into an occupying status takes the time again, and fails if it was booked since.
+    // Runs before the status changes, so the guard is taken before this row is written.
+    private void reserveIfReactivated(Appointment appointment, Appointment.AppointmentStatus newStatus) {
+        if (!appointment.getStatus().occupiesSlot() && newStatus.occupiesSlot()) {
+            reserveTime(appointment.getUserId(), appointment.getAppointmentDate(),
+                    appointment.getStartTime(), appointment.getEndTime(), appointment.getId());
+        }
+    }
 
-        if (!insideAnyWindow) {
+    // The day guard makes this check and the write that follows atomic across nodes
+    private void reserveTime(UUID userId, LocalDate appointmentDate, LocalTime startTime, LocalTime endTime,
+                             UUID excludedId) {
+        bookingDayGuard.lock(userId, appointmentDate);
+        boolean overlaps = !appointmentRepository.lockOverlapping(userId, appointmentDate, startTime, endTime,
+                Appointment.AppointmentStatus.OCCUPYING, excludedId).isEmpty();
+        if (overlaps) {
+            bookingScheduleIndex.invalidateDay(userId, appointmentDate);
+            throw new RuntimeException("Requested slot is already booked");
+        }
+    }
+
+    private void validateTimes(LocalTime startTime, LocalTime endTime) {
+        if (!endTime.isAfter(startTime)) {
+            throw new RuntimeException("End time must be after start time");
+        }
+    }
+
+    private void validateWithinAvailability(UUID businessId, LocalDate appointmentDate, LocalTime startTime, LocalTime endTime) {
+        if (!bookingScheduleIndex.isWithinAvailability(businessId, appointmentDate, startTime, endTime)) {
             throw new RuntimeException("Requested slot is outside business availability");
         }
     }
 
     private void validateNoOverlap(UUID businessId, LocalDate appointmentDate, LocalTime startTime, LocalTime endTime) {
-        List<Appointment> existingAppointments = appointmentRepository.findByUserIdAndAppointmentDate(businessId, appointmentDate);
-        boolean overlaps = existingAppointments.stream()
-                .filter(a -> a.getStatus() != Appointment.AppointmentStatus.CANCELLED)
-                .anyMatch(a -> startTime.isBefore(a.getEndTime()) && endTime.isAfter(a.getStartTime()));
-
-        if (overlaps) {
+        if (!bookingScheduleIndex.isFree(businessId, appointmentDate, startTime, endTime)) {
             throw new RuntimeException("Requested slot is already booked");
         }
     }
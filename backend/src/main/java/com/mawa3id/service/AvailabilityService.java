@@ -18,6 +18,12 @@ public class AvailabilityService {
     @Autowired
     private AvailabilityRepository availabilityRepository;
 
+    @Autowired
+    private BookingScheduleIndex bookingScheduleIndex;
+
+    @Autowired
+    private PublicBookingProfileCache publicBookingProfileCache;
+
     public Availability createAvailability(UUID userId, AvailabilityDTO request) {
         if (request.getDayOfWeek() < 0 || request.getDayOfWeek() > 6) {
             throw new RuntimeException("Day of week must be between 0 and 6");
@@ -33,6 +39,8 @@ public class AvailabilityService {
             throw new RuntimeException("Start time must be before end time");
         }
 
+        bookingScheduleIndex.evictBusiness(userId);
+        publicBookingProfileCache.evict(userId);
         return availabilityRepository.save(availability);
     }
 
@@ -62,6 +70,8 @@ public class AvailabilityService {
         availability.setStartTime(request.getStartTime());
         availability.setEndTime(request.getEndTime());
 
+        bookingScheduleIndex.evictBusiness(userId);
+        publicBookingProfileCache.evict(userId);
         return availabilityRepository.save(availability);
     }
 
@@ -74,6 +84,8 @@ public class AvailabilityService {
         }
 
         availabilityRepository.delete(availability);
+        bookingScheduleIndex.evictBusiness(userId);
+        publicBookingProfileCache.evict(userId);
     }
 
     private AvailabilityDTO toDTO(Availability availability) {
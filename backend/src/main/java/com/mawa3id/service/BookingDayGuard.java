@@ -0,0 +1,62 @@
+package com.mawa3id.service;
+
+import com.mawa3id.model.BookingDay;
+import com.mawa3id.repository.BookingDayRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Serializes bookings for one business day across nodes through a row lock on its
+// booking_days row. Rows are created on first use in their own transaction, so a
+// concurrent first booking finds a committed row to wait on instead of racing an insert.
+@Component
+public class BookingDayGuard {
+
+    @Autowired
+    private BookingDayRepository bookingDayRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Called before the booking transaction opens, so it does not hold a second connection
+    public void ensureExists(UUID userId, LocalDate date) {
+        if (bookingDayRepository.existsByUserIdAndAppointmentDate(userId, date)) {
+            return;
+        }
+        try {
+            newTransaction.executeWithoutResult(status ->
+                    bookingDayRepository.saveAndFlush(new BookingDay(null, userId, date)));
+        } catch (DataIntegrityViolationException e) {
+            // Unique key clash: another booking created the row first
+        }
+    }
+
+    // Held until the surrounding transaction ends
+    public void lock(UUID userId, LocalDate date) {
+        // The existence check is a plain read: a locking read of a missing row would take a
+        // gap lock that blocks the insert below
+        ensureExists(userId, date);
+        bookingDayRepository.lockByUserIdAndAppointmentDate(userId, date)
+                .orElseThrow(() -> new IllegalStateException("Booking day " + date + " has no guard row"));
+    }
+
+    // Past days can no longer be booked
+    public int purgeBefore(LocalDate date) {
+        return newTransaction.execute(status -> bookingDayRepository.deleteByAppointmentDateBefore(date));
+    }
+}
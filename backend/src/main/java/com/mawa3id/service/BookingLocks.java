@@ -0,0 +1,40 @@
+package com.mawa3id.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Striped in-JVM locks so bookings for the same business day are serialized
+// while unrelated businesses and days proceed in parallel.
+@Component
+public class BookingLocks {
+
+    @Value("${app.booking.lock-stripes:256}")
+    private int stripeCount;
+
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    void init() {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(UUID businessId, LocalDate date, Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(Objects.hash(businessId, date), stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
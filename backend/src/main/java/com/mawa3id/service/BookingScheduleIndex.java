@@ -0,0 +1,184 @@
+package com.mawa3id.service;
+
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.Availability;
+import com.mawa3id.repository.AppointmentRepository;
+import com.mawa3id.repository.AvailabilityRepository;
+import com.mawa3id.util.AfterCommit;
+import com.mawa3id.util.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// In-memory view of each business day: availability windows plus a per-minute
+// occupancy map, so booking checks do not have to hit the database every time.
+// Committed appointment changes are applied to a loaded day in place, and each day is
+// rebuilt from the database every app.schedule-index.ttl-ms. The view is only a pre-check: the booking_days row lock taken with
+// each booking remains the authoritative conflict check.
+@Component
+public class BookingScheduleIndex {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Value("${app.schedule-index.max-days:10000}")
+    private int maxDays;
+
+    @Value("${app.schedule-index.ttl-ms:30000}")
+    private long ttlMs;
+
+    private BoundedTtlCache<DayKey, DaySchedule> days;
+
+    @PostConstruct
+    void init() {
+        days = new BoundedTtlCache<>(maxDays, ttlMs);
+    }
+
+    public boolean isWithinAvailability(UUID businessId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        DaySchedule day = load(businessId, date);
+        synchronized (day) {
+            return day.isWithinAvailability(toMinute(startTime), toMinute(endTime));
+        }
+    }
+
+    public boolean isFree(UUID businessId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        DaySchedule day = load(businessId, date);
+        synchronized (day) {
+            return day.isFree(toMinute(startTime), toMinute(endTime));
+        }
+    }
+
+    public void onAppointmentSaved(Appointment appointment) {
+        UUID id = appointment.getId();
+        DayKey key = new DayKey(appointment.getUserId(), appointment.getAppointmentDate());
+        boolean occupies = appointment.getStatus().occupiesSlot();
+        int start = toMinute(appointment.getStartTime());
+        int end = toMinute(appointment.getEndTime());
+        AfterCommit.run(() -> {
+            DaySchedule day = days.getIfPresent(key);
+            if (day == null) {
+                return;
+            }
+            synchronized (day) {
+                if (!day.loaded) {
+                    return;
+                }
+                if (occupies) {
+                    day.occupy(id, start, end);
+                } else {
+                    day.release(id);
+                }
+            }
+        });
+    }
+
+    public void onAppointmentDeleted(Appointment appointment) {
+        UUID id = appointment.getId();
+        DayKey key = new DayKey(appointment.getUserId(), appointment.getAppointmentDate());
+        AfterCommit.run(() -> {
+            DaySchedule day = days.getIfPresent(key);
+            if (day == null) {
+                return;
+            }
+            synchronized (day) {
+                day.release(id);
+            }
+        });
+    }
+
+    // Dropped immediately, e.g. after the locked overlap check showed this node's view of the day was stale
+    public void invalidateDay(UUID businessId, LocalDate date) {
+        days.invalidate(new DayKey(businessId, date));
+    }
+
+    public void evictBusiness(UUID businessId) {
+        AfterCommit.run(() -> days.invalidateIf((key, day) -> key.businessId().equals(businessId)));
+    }
+
+    private DaySchedule load(UUID businessId, LocalDate date) {
+        // Two callers may both miss and load separate copies; only one is kept, and either is a valid view
+        DaySchedule day = days.get(new DayKey(businessId, date), DaySchedule::new);
+        synchronized (day) {
+            if (!day.loaded) {
+                int dayOfWeek = date.getDayOfWeek().getValue() % 7;
+                for (Availability availability : availabilityRepository.findByUserIdAndDayOfWeek(businessId, dayOfWeek)) {
+                    day.windows.add(new int[]{toMinute(availability.getStartTime()), toMinute(availability.getEndTime())});
+                }
+                for (Appointment appointment : appointmentRepository.findByUserIdAndAppointmentDate(businessId, date)) {
+                    if (appointment.getStatus().occupiesSlot()) {
+                        day.occupy(appointment.getId(), toMinute(appointment.getStartTime()), toMinute(appointment.getEndTime()));
+                    }
+                }
+                day.windows.sort((a, b) -> Integer.compare(a[0], b[0]));
+                day.loaded = true;
+            }
+        }
+        return day;
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    private record DayKey(UUID businessId, LocalDate date) {
+    }
+
+    static class DaySchedule {
+        private final List<int[]> windows = new ArrayList<>();
+        private final Map<UUID, int[]> booked = new HashMap<>();
+        private final short[] occupancy = new short[MINUTES_PER_DAY];
+        private boolean loaded;
+
+        boolean isWithinAvailability(int start, int end) {
+            for (int[] window : windows) {
+                if (start >= window[0] && end <= window[1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isFree(int start, int end) {
+            for (int minute = start; minute < end; minute++) {
+                if (occupancy[minute] > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void occupy(UUID appointmentId, int start, int end) {
+            if (end <= start || booked.containsKey(appointmentId)) {
+                return;
+            }
+            booked.put(appointmentId, new int[]{start, end});
+            for (int minute = start; minute < end; minute++) {
+                occupancy[minute]++;
+            }
+        }
+
+        void release(UUID appointmentId) {
+            int[] range = booked.remove(appointmentId);
+            if (range == null) {
+                return;
+            }
+            for (int minute = range[0]; minute < range[1]; minute++) {
+                occupancy[minute]--;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.mawa3id.service;
+
+import com.mawa3id.dto.AvailableSlotsDTO;
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.Availability;
+import com.mawa3id.model.Service;
+import com.mawa3id.repository.AppointmentRepository;
+import com.mawa3id.repository.AvailabilityRepository;
+import com.mawa3id.repository.ServiceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+@Transactional(readOnly = true)
+public class BookingSlotService {
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Value("${app.booking.slot-step-minutes:15}")
+    private int slotStepMinutes;
+
+    @Value("${app.booking.max-slot-range-days:62}")
+    private int maxRangeDays;
+
+    public List<AvailableSlotsDTO> getAvailableSlots(UUID businessId, UUID serviceId, LocalDate from, LocalDate to) {
+        Service service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new RuntimeException("Service not found"));
+
+        if (!service.getUserId().equals(businessId)) {
+            throw new RuntimeException("Service does not belong to this business");
+        }
+        if (to.isBefore(from)) {
+            throw new RuntimeException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new RuntimeException("Date range cannot exceed " + maxRangeDays + " days");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate firstDate = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        List<AvailableSlotsDTO> result = new ArrayList<>();
+        if (firstDate.isAfter(to)) {
+            return result;
+        }
+
+        Map<Integer, List<int[]>> windowsByDay = new HashMap<>();
+        for (Availability availability : availabilityRepository.findByUserId(businessId)) {
+            windowsByDay.computeIfAbsent(availability.getDayOfWeek(), day -> new ArrayList<>())
+                    .add(new int[]{toMinute(availability.getStartTime()), toMinute(availability.getEndTime())});
+        }
+
+        Map<LocalDate, List<int[]>> bookedByDate = new HashMap<>();
+        for (Appointment appointment : appointmentRepository.findByUserIdAndDateRange(businessId, firstDate, to)) {
+            if (appointment.getStatus().occupiesSlot()) {
+                bookedByDate.computeIfAbsent(appointment.getAppointmentDate(), date -> new ArrayList<>())
+                        .add(new int[]{toMinute(appointment.getStartTime()), toMinute(appointment.getEndTime())});
+            }
+        }
+
+        int duration = service.getDurationMinutes();
+        for (LocalDate date = firstDate; !date.isAfter(to); date = date.plusDays(1)) {
+            List<int[]> windows = windowsByDay.get(date.getDayOfWeek().getValue() % 7);
+            if (windows == null) {
+                continue;
+            }
+            int earliest = date.equals(now.toLocalDate()) ? toMinute(now.toLocalTime()) + 1 : 0;
+            List<LocalTime> startTimes = findStartTimes(windows, bookedByDate.getOrDefault(date, List.of()), duration, earliest);
+            if (!startTimes.isEmpty()) {
+                result.add(new AvailableSlotsDTO(date, startTimes));
+            }
+        }
+        return result;
+    }
+
+    private List<LocalTime> findStartTimes(List<int[]> windows, List<int[]> booked, int duration, int earliest) {
+        List<int[]> sortedWindows = new ArrayList<>(windows);
+        sortedWindows.sort(Comparator.comparingInt(window -> window[0]));
+        List<int[]> sortedBooked = new ArrayList<>(booked);
+        sortedBooked.sort(Comparator.comparingInt(range -> range[0]));
+
+        List<Integer> starts = new ArrayList<>();
+        for (int[] window : sortedWindows) {
+            int cursor = window[0];
+            for (int[] range : sortedBooked) {
+                if (range[1] <= cursor) {
+                    continue;
+                }
+                if (range[0] >= window[1]) {
+                    break;
+                }
+                addStarts(starts, window[0], cursor, Math.min(range[0], window[1]), duration, earliest);
+                cursor = Math.max(cursor, range[1]);
+            }
+            addStarts(starts, window[0], cursor, window[1], duration, earliest);
+        }
+
+        return starts.stream()
+                .distinct()
+                .sorted()
+                .map(minute -> LocalTime.of(minute / 60, minute % 60))
+                .toList();
+    }
+
+    private void addStarts(List<Integer> starts, int windowStart, int freeStart, int freeEnd, int duration, int earliest) {
+        int offset = Math.floorMod(freeStart - windowStart, slotStepMinutes);
+        int first = offset == 0 ? freeStart : freeStart + slotStepMinutes - offset;
+        for (int start = first; start + duration <= freeEnd; start += slotStepMinutes) {
+            if (start >= earliest) {
+                starts.add(start);
+            }
+        }
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+}
@@ -0,0 +1,134 @@
+package com.mawa3id.service;
+
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.BusinessStat;
+import com.mawa3id.repository.AppointmentDailyTotals;
+import com.mawa3id.repository.AppointmentRepository;
+import com.mawa3id.repository.AppointmentStatusTotals;
+import com.mawa3id.repository.BusinessStatRepository;
+import com.mawa3id.repository.ServiceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+@Component
+@Transactional
+public class BusinessStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessStatsService.class);
+
+    @Autowired
+    private BusinessStatRepository businessStatRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+
+    public void recordCreated(Appointment appointment) {
+        adjust(appointment, appointment.getStatus(), 1, priceOf(appointment));
+    }
+
+    public void recordStatusChange(Appointment appointment, Appointment.AppointmentStatus previousStatus) {
+        if (previousStatus == appointment.getStatus()) {
+            return;
+        }
+        BigDecimal price = priceOf(appointment);
+        adjust(appointment, previousStatus, -1, price.negate());
+        adjust(appointment, appointment.getStatus(), 1, price);
+    }
+
+    public void recordDeleted(Appointment appointment) {
+        adjust(appointment, appointment.getStatus(), -1, priceOf(appointment).negate());
+    }
+
+    // Applies a bulk status move using per-day totals of the locked rows taken before the update
+    public void recordBulkStatusChange(List<AppointmentDailyTotals> moved, Appointment.AppointmentStatus newStatus) {
+        for (AppointmentDailyTotals totals : moved) {
+            adjust(totals.getUserId(), totals.getAppointmentDate(), totals.getStatus(),
+                    -totals.getAppointmentCount(), totals.getRevenue().negate());
+            adjust(totals.getUserId(), totals.getAppointmentDate(), newStatus,
+                    totals.getAppointmentCount(), totals.getRevenue());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<BusinessStat> getStats(UUID userId) {
+        return businessStatRepository.findByUserId(userId);
+    }
+
+    // Corrects every counter against the appointments table and returns how many had drifted.
+    // Both reads come from one REPEATABLE READ snapshot and the fix is applied as a delta, so
+    // increments committed by live bookings while this runs are kept.
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int reconcile() {
+        Map<String, AppointmentStatusTotals> actual = new HashMap<>();
+        for (AppointmentStatusTotals totals : appointmentRepository.sumByUserAndStatus()) {
+            actual.put(key(totals.getUserId(), totals.getStatus()), totals);
+        }
+
+        int drifted = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (BusinessStat stat : businessStatRepository.findAll()) {
+            AppointmentStatusTotals totals = actual.remove(key(stat.getUserId(), stat.getStatus()));
+            long count = totals != null ? totals.getAppointmentCount() : 0;
+            BigDecimal revenue = totals != null ? totals.getRevenue() : BigDecimal.ZERO;
+            if (stat.getAppointmentCount() != count || stat.getRevenue().compareTo(revenue) != 0) {
+                logger.warn("Business stats drift for {} {}: count {} -> {}, revenue {} -> {}",
+                        stat.getUserId(), stat.getStatus(), stat.getAppointmentCount(), count, stat.getRevenue(), revenue);
+                businessStatRepository.increment(UUID.randomUUID(), stat.getUserId(), stat.getStatus().name(),
+                        count - stat.getAppointmentCount(), revenue.subtract(stat.getRevenue()), now);
+                drifted++;
+            }
+        }
+
+        for (AppointmentStatusTotals totals : actual.values()) {
+            logger.warn("Business stats missing for {} {}: count {}, revenue {}",
+                    totals.getUserId(), totals.getStatus(), totals.getAppointmentCount(), totals.getRevenue());
+            businessStatRepository.increment(UUID.randomUUID(), totals.getUserId(), totals.getStatus().name(),
+                    totals.getAppointmentCount(), totals.getRevenue(), now);
+            drifted++;
+        }
+        return drifted;
+    }
+
+    private void adjust(Appointment appointment, Appointment.AppointmentStatus status, long countDelta, BigDecimal revenueDelta) {
+        adjust(appointment.getUserId(), appointment.getAppointmentDate(), status, countDelta, revenueDelta);
+    }
+
+    private void adjust(UUID userId, LocalDate date, Appointment.AppointmentStatus status,
+                        long countDelta, BigDecimal revenueDelta) {
+        businessStatRepository.increment(UUID.randomUUID(), userId, status.name(), countDelta, revenueDelta, LocalDateTime.now());
+        analyticsRollupService.increment(userId, date, status, countDelta, revenueDelta);
+    }
+
+    // The price counted at booking time; appointments from before it was stored fall back to the service
+    private BigDecimal priceOf(Appointment appointment) {
+        if (appointment.getPrice() != null) {
+            return appointment.getPrice();
+        }
+        return serviceRepository.findById(appointment.getServiceId())
+                .map(com.mawa3id.model.Service::getPrice)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    private static String key(UUID userId, Appointment.AppointmentStatus status) {
+        return Objects.toString(userId) + ":" + status;
+    }
+}
@@ -0,0 +1,148 @@
+package com.mawa3id.service;
+
+import com.mawa3id.event.ClusterMembershipChangedEvent;
+import com.mawa3id.model.ClusterNode;
+import com.mawa3id.model.SchedulerLease;
+import com.mawa3id.repository.ClusterNodeRepository;
+import com.mawa3id.repository.SchedulerLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Coordinates scheduled work across backend instances through the database.
+// One node holds the leader lease and runs the global jobs; per-business work is
+// split across all live nodes by hash of the business id.
+@Component
+public class ClusterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterService.class);
+
+    private static final String LEADER_LEASE = "scheduler-leader";
+
+    @Autowired
+    private ClusterNodeRepository clusterNodeRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.cluster.node-id:}")
+    private String configuredNodeId;
+
+    @Value("${app.cluster.lease-ms:30000}")
+    private long leaseMs;
+
+    private String nodeId;
+    private volatile boolean joined;
+    private volatile long leaderUntil;
+    private volatile int partitionIndex = 0;
+    private volatile int partitionCount = 1;
+
+    @PostConstruct
+    void init() {
+        nodeId = configuredNodeId.isBlank() ? UUID.randomUUID().toString() : configuredNodeId;
+        logger.info("Cluster node id: {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isLeader() {
+        ensureJoined();
+        return System.currentTimeMillis() < leaderUntil;
+    }
+
+    public boolean ownsUser(UUID userId) {
+        ensureJoined();
+        int count = partitionCount;
+        return count <= 1 || Math.floorMod(userId.hashCode(), count) == partitionIndex;
+    }
+
+    // Runs on its own scheduler so long jobs on the shared pool cannot delay it past the lease
+    @Scheduled(fixedRateString = "${app.cluster.heartbeat-ms:10000}", scheduler = "clusterHeartbeatScheduler")
+    public synchronized void heartbeat() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime liveSince = now.minusNanos(leaseMs * 1_000_000);
+            List<String> liveNodes = transactionTemplate.execute(status -> {
+                if (clusterNodeRepository.touch(nodeId, now) == 0) {
+                    clusterNodeRepository.save(new ClusterNode(nodeId, now));
+                }
+                return clusterNodeRepository.findLiveNodeIds(liveSince);
+            });
+            updatePartition(liveNodes);
+
+            // The local deadline ends before the database lease does, so two nodes never both act as leader
+            long renewedAt = System.currentTimeMillis();
+            if (acquire(LEADER_LEASE, now)) {
+                leaderUntil = renewedAt + leaseMs / 2;
+                transactionTemplate.executeWithoutResult(status ->
+                        clusterNodeRepository.deleteStale(now.minusNanos(leaseMs * 10 * 1_000_000)));
+            } else {
+                leaderUntil = 0;
+            }
+        } catch (Exception e) {
+            logger.error("Cluster heartbeat failed", e);
+        } finally {
+            joined = true;
+        }
+    }
+
+    private boolean acquire(String lease, LocalDateTime now) {
+        LocalDateTime expiresAt = now.plusNanos(leaseMs * 1_000_000);
+        try {
+            Boolean acquired = transactionTemplate.execute(status -> {
+                if (schedulerLeaseRepository.acquire(lease, nodeId, expiresAt, now) > 0) {
+                    return true;
+                }
+                if (schedulerLeaseRepository.existsById(lease)) {
+                    return false;
+                }
+                schedulerLeaseRepository.save(new SchedulerLease(lease, nodeId, expiresAt));
+                return true;
+            });
+            return Boolean.TRUE.equals(acquired);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the lease row first
+            return false;
+        }
+    }
+
+    private void updatePartition(List<String> liveNodes) {
+        int index = liveNodes == null ? -1 : liveNodes.indexOf(nodeId);
+        int newIndex = index < 0 ? 0 : index;
+        int newCount = index < 0 ? 1 : liveNodes.size();
+        if (newIndex != partitionIndex || newCount != partitionCount) {
+            partitionIndex = newIndex;
+            partitionCount = newCount;
+            logger.info("Cluster membership changed: partition {} of {}", newIndex, newCount);
+            // The first heartbeat only sets up the partition; startup seeding already uses it
+            if (joined) {
+                eventPublisher.publishEvent(new ClusterMembershipChangedEvent(newIndex, newCount));
+            }
+        }
+    }
+
+    private void ensureJoined() {
+        if (!joined) {
+            heartbeat();
+        }
+    }
+}
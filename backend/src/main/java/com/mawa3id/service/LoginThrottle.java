@@ -0,0 +1,117 @@
+package com.mawa3id.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Sliding-window login attempt limits per email and per client IP, and registration
+// limits per client IP. Attempt times are kept in striped maps so unrelated keys never
+// contend on the same lock.
+@Component
+public class LoginThrottle {
+
+    @Value("${app.auth.throttle.window-ms:300000}")
+    private long windowMs;
+
+    @Value("${app.auth.throttle.max-attempts-per-email:10}")
+    private int maxAttemptsPerEmail;
+
+    @Value("${app.auth.throttle.max-attempts-per-ip:50}")
+    private int maxAttemptsPerIp;
+
+    @Value("${app.auth.throttle.max-registrations-per-ip:10}")
+    private int maxRegistrationsPerIp;
+
+    @Value("${app.auth.throttle.stripes:64}")
+    private int stripeCount;
+
+    private Stripe[] stripes;
+
+    @PostConstruct
+    void init() {
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // Records the attempt, or rejects it with 429 when either window is full
+    public void recordAttempt(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (!tryRecord("ip:" + clientIp, maxAttemptsPerIp, now)
+                || !tryRecord(emailKey(email), maxAttemptsPerEmail, now)) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts, please try again later");
+        }
+    }
+
+    // Registrations hash a password too, so they are limited the same way
+    public void recordRegistration(String clientIp) {
+        if (!tryRecord("register:" + clientIp, maxRegistrationsPerIp, System.currentTimeMillis())) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many registration attempts, please try again later");
+        }
+    }
+
+    public void recordSuccess(String email) {
+        String key = emailKey(email);
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.attempts.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.auth.throttle.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long cutoff = System.currentTimeMillis() - windowMs;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.attempts.values().removeIf(times -> times.isEmpty() || times.peekLast() <= cutoff);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private boolean tryRecord(String key, int maxAttempts, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            ArrayDeque<Long> times = stripe.attempts.computeIfAbsent(key, k -> new ArrayDeque<>());
+            while (!times.isEmpty() && times.peekFirst() <= now - windowMs) {
+                times.pollFirst();
+            }
+            if (times.size() >= maxAttempts) {
+                return false;
+            }
+            times.addLast(now);
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, ArrayDeque<Long>> attempts = new HashMap<>();
+    }
+}
@@ -0,0 +1,89 @@
+package com.mawa3id.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs BCrypt on its own small pool so a burst of logins cannot take every request
+// thread. Work beyond the queue limit is refused straight away instead of piling up.
+// Registrations may only hold part of the pool, so a sign-up flood cannot lock out logins.
+@Component
+public class PasswordHasher {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.auth.bcrypt.threads:2}")
+    private int threads;
+
+    @Value("${app.auth.bcrypt.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.auth.bcrypt.max-pending-encodes:16}")
+    private int maxPendingEncodes;
+
+    private ThreadPoolExecutor executor;
+    private Semaphore encodePermits;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mawa3id-bcrypt-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        encodePermits = new Semaphore(maxPendingEncodes);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String passwordHash) {
+        return submit(() -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        if (!encodePermits.tryAcquire()) {
+            throw busy();
+        }
+        try {
+            return submit(() -> passwordEncoder.encode(rawPassword))
+                    .whenComplete((hash, error) -> encodePermits.release());
+        } catch (RuntimeException e) {
+            encodePermits.release();
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+    }
+
+    private static ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server busy, please try again");
+    }
+}
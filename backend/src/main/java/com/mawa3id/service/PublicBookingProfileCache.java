@@ -0,0 +1,104 @@
+package com.mawa3id.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mawa3id.dto.AvailabilityDTO;
+import com.mawa3id.dto.PublicBookingProfileDTO;
+import com.mawa3id.dto.ServiceDTO;
+import com.mawa3id.model.User;
+import com.mawa3id.repository.AvailabilityRepository;
+import com.mawa3id.repository.ServiceRepository;
+import com.mawa3id.repository.UserRepository;
+import com.mawa3id.util.AfterCommit;
+import com.mawa3id.util.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Public booking page data (business, services, availability) per business, kept as the
+// serialized JSON plus its ETag so unchanged pages can be answered with 304. Saving the
+// profile, a service or an availability window evicts the business once it commits.
+@Component
+public class PublicBookingProfileCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.public-booking.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.public-booking.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private BoundedTtlCache<UUID, CachedProfile> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedTtlCache<>(maxEntries, ttlMs);
+    }
+
+    @Transactional(readOnly = true)
+    public CachedProfile getProfile(UUID businessId) {
+        return cache.get(businessId, () -> load(businessId));
+    }
+
+    public void evict(UUID businessId) {
+        AfterCommit.run(() -> cache.invalidate(businessId));
+    }
+
+    private CachedProfile load(UUID businessId) {
+        User business = userRepository.findById(businessId)
+                .orElseThrow(() -> new RuntimeException("Business not found"));
+
+        List<ServiceDTO> services = serviceRepository.findByUserId(businessId)
+                .stream()
+                .map(service -> new ServiceDTO(
+                        service.getId(),
+                        service.getName(),
+                        service.getDurationMinutes(),
+                        service.getPrice(),
+                        service.getCreatedAt(),
+                        service.getUpdatedAt()
+                ))
+                .collect(Collectors.toList());
+
+        List<AvailabilityDTO> availability = availabilityRepository.findByUserId(businessId)
+                .stream()
+                .map(a -> new AvailabilityDTO(a.getId(), a.getDayOfWeek(), a.getStartTime(), a.getEndTime()))
+                .collect(Collectors.toList());
+
+        PublicBookingProfileDTO profile = new PublicBookingProfileDTO(
+                business.getId(),
+                business.getBusinessName(),
+                business.getPhone(),
+                services,
+                availability
+        );
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(profile);
+            return new CachedProfile(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize booking profile", e);
+        }
+    }
+
+    public record CachedProfile(byte[] json, String etag) {
+    }
+}
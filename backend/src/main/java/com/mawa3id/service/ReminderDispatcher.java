@@ -0,0 +1,59 @@
+package com.mawa3id.service;
+
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.ReminderLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Hands due reminders to the SMS outbox; delivery happens in SmsOutboxWorker,
+// outside any transaction.
+@Component
+public class ReminderDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+    public record ReminderJob(Appointment appointment, ReminderLog.ReminderType type) {
+    }
+
+    @Autowired
+    private ReminderService reminderService;
+
+    public void dispatch(List<ReminderJob> jobs) {
+        try {
+            reminderService.enqueueReminders(jobs);
+        } catch (RuntimeException e) {
+            // Another node queued one of these first, or one of them cannot be built (e.g. its
+            // service was deleted); queue the rest one at a time so one job cannot hold back the batch
+            for (ReminderJob job : jobs) {
+                try {
+                    reminderService.enqueueReminders(List.of(job));
+                } catch (DataIntegrityViolationException duplicate) {
+                    logger.info("{} for appointment {} already queued by another node", job.type(), job.appointment().getId());
+                } catch (RuntimeException failure) {
+                    logger.warn("Could not queue {} for appointment {}: {}", job.type(), job.appointment().getId(), failure.getMessage());
+                    recordFailure(job);
+                }
+            }
+        }
+    }
+
+    // A FAILED log goes through the usual retry backoff and ends as GAVE_UP if the job keeps failing
+    private void recordFailure(ReminderJob job) {
+        ReminderLog outcome = new ReminderLog();
+        outcome.setAppointmentId(job.appointment().getId());
+        outcome.setType(job.type());
+        outcome.setStatus(ReminderLog.ReminderStatus.FAILED);
+        outcome.setSentAt(LocalDateTime.now());
+        try {
+            reminderService.recordReminders(List.of(outcome));
+        } catch (RuntimeException e) {
+            logger.error("Could not record failed {} for appointment {}", job.type(), job.appointment().getId(), e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mawa3id.service;
+
+import com.mawa3id.model.ReminderLog;
+import com.mawa3id.repository.ReminderLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Collects the reminder log rows of one dispatch run and writes them in chunks of
+// app.reminders.log-batch-size. Each chunk is flushed on its own so Hibernate sends
+// it as JDBC batches instead of one INSERT/UPDATE round trip per row.
+// Buffers must be used and flushed inside the caller's transaction. Flushing goes
+// through the repository so a duplicate row surfaces as DataIntegrityViolationException.
+@Component
+public class ReminderLogWriter {
+
+    @Autowired
+    private ReminderLogRepository reminderLogRepository;
+
+    @Value("${app.reminders.log-batch-size:100}")
+    private int batchSize;
+
+    public Buffer buffer() {
+        return new Buffer();
+    }
+
+    public class Buffer {
+        private final List<ReminderLog> pending = new ArrayList<>();
+        private int written;
+
+        public void add(ReminderLog log) {
+            pending.add(log);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        public int flush() {
+            if (!pending.isEmpty()) {
+                reminderLogRepository.saveAllAndFlush(pending);
+                written += pending.size();
+                pending.clear();
+            }
+            return written;
+        }
+    }
+}
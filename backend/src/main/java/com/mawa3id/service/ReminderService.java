@@ -1,18 +1,36 @@
 package com.mawa3id.service;
 
+import com.mawa3id.event.AppointmentChangedEvent;
+import com.mawa3id.event.AppointmentsBatchChangedEvent;
 import com.mawa3id.model.Appointment;
 import com.mawa3id.model.ReminderLog;
-import com.mawa3id.model.Service;
+import com.mawa3id.model.SmsOutboxMessage;
+import com.mawa3id.repository.AppointmentDailyTotals;
 import com.mawa3id.repository.AppointmentRepository;
 import com.mawa3id.repository.ReminderLogRepository;
-import com.mawa3id.repository.ServiceRepository;
+import com.mawa3id.repository.SmsOutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 @Transactional
@@ -27,77 +45,206 @@ public class ReminderService {
     private ReminderLogRepository reminderLogRepository;
 
     @Autowired
-    private ServiceRepository serviceRepository;
+    private ReminderLogWriter reminderLogWriter;
 
     @Autowired
-    private SmsNotificationService smsNotificationService;
-
-    public void sendFirstReminder(Appointment appointment) {
-        try {
-            Service service = serviceRepository.findById(appointment.getServiceId())
-                    .orElseThrow(() -> new RuntimeException("Service not found"));
-
-            String message = String.format(
-                    "Hi %s, your appointment for %s is scheduled at %s. Reply YES to confirm or NO to cancel.",
-                    appointment.getCustomerName(),
-                    service.getName(),
-                    appointment.getStartTime()
-            );
-
-            smsNotificationService.sendSMS(appointment.getCustomerPhone(), message);
-
-            ReminderLog log = new ReminderLog();
-            log.setAppointmentId(appointment.getId());
-            log.setType(ReminderLog.ReminderType.FIRST_REMINDER);
-            log.setStatus(ReminderLog.ReminderStatus.SENT);
-            reminderLogRepository.save(log);
-
-            logger.info("First reminder sent for appointment: " + appointment.getId());
-        } catch (Exception e) {
-            logger.error("Failed to send first reminder for appointment: " + appointment.getId(), e);
-            ReminderLog log = new ReminderLog();
-            log.setAppointmentId(appointment.getId());
-            log.setType(ReminderLog.ReminderType.FIRST_REMINDER);
-            log.setStatus(ReminderLog.ReminderStatus.FAILED);
-            reminderLogRepository.save(log);
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private BookingDayGuard bookingDayGuard;
+
+    @Autowired
+    private ReminderTemplateService reminderTemplateService;
+
+    @Autowired
+    private SmsOutboxService smsOutboxService;
+
+    @Autowired
+    private SmsOutboxRepository smsOutboxRepository;
+
+    @Autowired
+    private BusinessStatsService businessStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.reminders.no-show.batch-size:1000}")
+    private int noShowBatchSize;
+
+    @Value("${app.reminders.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.reminders.retry.base-delay-ms:60000}")
+    private long retryBaseDelayMs;
+
+    @Value("${app.reminders.retry.max-delay-ms:3600000}")
+    private long retryMaxDelayMs;
+
+    // Writes the outbox messages and their QUEUED logs in one transaction; SmsOutboxWorker sends them
+    public void enqueueReminders(List<ReminderDispatcher.ReminderJob> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        List<UUID> appointmentIds = jobs.stream().map(job -> job.appointment().getId()).distinct().toList();
+        Map<String, ReminderLog> existing = new HashMap<>();
+        for (ReminderLog log : reminderLogRepository.findByAppointmentIdIn(appointmentIds)) {
+            existing.put(log.getAppointmentId() + ":" + log.getType(), log);
         }
+
+        ReminderLogWriter.Buffer logs = reminderLogWriter.buffer();
+        for (ReminderDispatcher.ReminderJob job : jobs) {
+            Appointment appointment = job.appointment();
+            ReminderLog log = existing.get(appointment.getId() + ":" + job.type());
+            // Only new or failed reminders are (re)queued, so a duplicate dispatch sends nothing
+            if (log != null && log.getStatus() != ReminderLog.ReminderStatus.FAILED) {
+                continue;
+            }
+            smsOutboxService.enqueue(appointment.getCustomerPhone(), buildMessage(appointment, job.type()),
+                    appointment.getId(), job.type());
+
+            if (log == null) {
+                log = new ReminderLog();
+                log.setAppointmentId(appointment.getId());
+                log.setType(job.type());
+            }
+            log.setStatus(ReminderLog.ReminderStatus.QUEUED);
+            log.setNextAttemptAt(null);
+            logs.add(log);
+        }
+        logs.flush();
     }
 
-    public void sendFollowUpReminder(Appointment appointment) {
-        try {
-            Service service = serviceRepository.findById(appointment.getServiceId())
-                    .orElseThrow(() -> new RuntimeException("Service not found"));
-
-            String message = String.format(
-                    "Reminder: Your appointment for %s is in 6 hours at %s. Please confirm.",
-                    service.getName(),
-                    appointment.getStartTime()
-            );
-
-            smsNotificationService.sendSMS(appointment.getCustomerPhone(), message);
-
-            ReminderLog log = new ReminderLog();
-            log.setAppointmentId(appointment.getId());
-            log.setType(ReminderLog.ReminderType.FOLLOW_UP);
-            log.setStatus(ReminderLog.ReminderStatus.SENT);
-            reminderLogRepository.save(log);
-
-            logger.info("Follow-up reminder sent for appointment: " + appointment.getId());
-        } catch (Exception e) {
-            logger.error("Failed to send follow-up reminder for appointment: " + appointment.getId(), e);
-            ReminderLog log = new ReminderLog();
-            log.setAppointmentId(appointment.getId());
-            log.setType(ReminderLog.ReminderType.FOLLOW_UP);
+    // Completes a drained outbox batch: marks the messages and applies the outcome to their reminder logs
+    public void recordDeliveries(List<SmsOutboxMessage> delivered) {
+        List<ReminderLog> outcomes = new ArrayList<>();
+        for (SmsOutboxMessage message : delivered) {
+            if (message.getAppointmentId() == null || message.getReminderType() == null) {
+                continue;
+            }
+            ReminderLog outcome = new ReminderLog();
+            outcome.setAppointmentId(message.getAppointmentId());
+            outcome.setType(message.getReminderType());
+            outcome.setStatus(message.getStatus() == SmsOutboxMessage.OutboxStatus.SENT
+                    ? ReminderLog.ReminderStatus.SENT
+                    : ReminderLog.ReminderStatus.FAILED);
+            outcome.setSentAt(LocalDateTime.now());
+            outcomes.add(outcome);
+        }
+
+        List<UUID> sentIds = new ArrayList<>();
+        for (SmsOutboxMessage message : delivered) {
+            if (message.getStatus() == SmsOutboxMessage.OutboxStatus.SENT) {
+                sentIds.add(message.getId());
+            } else {
+                smsOutboxRepository.markFailed(message.getId(), message.getLastError());
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            smsOutboxRepository.markSent(sentIds, LocalDateTime.now());
+        }
+        recordReminders(outcomes);
+    }
+
+    @Transactional(readOnly = true)
+    public String buildMessage(Appointment appointment, ReminderLog.ReminderType type) {
+        return reminderTemplateService.render(appointment, type);
+    }
+
+    // Writes the outcome of a dispatch run: one lookup for existing logs, then batched writes
+    public void recordReminders(List<ReminderLog> outcomes) {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        List<UUID> appointmentIds = outcomes.stream().map(ReminderLog::getAppointmentId).distinct().toList();
+        Map<String, ReminderLog> existing = new HashMap<>();
+        for (ReminderLog log : reminderLogRepository.findByAppointmentIdIn(appointmentIds)) {
+            existing.put(log.getAppointmentId() + ":" + log.getType(), log);
+        }
+
+        ReminderLogWriter.Buffer logs = reminderLogWriter.buffer();
+        for (ReminderLog outcome : outcomes) {
+            ReminderLog log = existing.getOrDefault(outcome.getAppointmentId() + ":" + outcome.getType(), outcome);
+            applyOutcome(log, outcome.getStatus(), outcome.getSentAt());
+            logs.add(log);
+        }
+        logs.flush();
+    }
+
+    public int giveUp(List<UUID> logIds) {
+        if (logIds.isEmpty()) {
+            return 0;
+        }
+        return reminderLogRepository.markGaveUp(logIds);
+    }
+
+    private void applyOutcome(ReminderLog log, ReminderLog.ReminderStatus status, LocalDateTime attemptedAt) {
+        log.setAttemptCount(log.getAttemptCount() + 1);
+        log.setSentAt(attemptedAt);
+        log.setNextAttemptAt(null);
+        if (status != ReminderLog.ReminderStatus.FAILED) {
+            log.setStatus(status);
+        } else if (log.getAttemptCount() >= maxAttempts) {
+            log.setStatus(ReminderLog.ReminderStatus.GAVE_UP);
+            logger.warn("Giving up on " + log.getType() + " for appointment " + log.getAppointmentId()
+                    + " after " + log.getAttemptCount() + " attempts");
+        } else {
             log.setStatus(ReminderLog.ReminderStatus.FAILED);
-            reminderLogRepository.save(log);
+            log.setNextAttemptAt(attemptedAt.plusNanos(retryDelayMs(log.getAttemptCount()) * 1_000_000));
+        }
+    }
+
+    // Exponential backoff capped at retryMaxDelayMs, with jitter over the upper half of the window
+    private long retryDelayMs(int attempt) {
+        long delay = retryBaseDelayMs << Math.min(attempt - 1, 30);
+        if (delay <= 0 || delay > retryMaxDelayMs) {
+            delay = retryMaxDelayMs;
         }
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
     }
 
     public void markNoShow(Appointment appointment) {
-        appointment.setStatus(Appointment.AppointmentStatus.NO_SHOW);
-        appointmentRepository.save(appointment);
+        appointmentService.changeStatus(appointment, Appointment.AppointmentStatus.NO_SHOW);
         logger.info("Appointment marked as NO_SHOW: " + appointment.getId());
     }
-}
 
+    // Moves every expired PENDING appointment to NO_SHOW with bulk UPDATEs, one chunk per transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int markExpiredNoShows() {
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        Set<UUID> userIds = new HashSet<>();
+        int total = 0;
+
+        while (true) {
+            Integer marked = transactionTemplate.execute(status -> {
+                // The locking read comes first, so the totals below read the locked rows as they are now
+                List<UUID> ids = appointmentRepository.lockExpiredPending(today, now, PageRequest.of(0, noShowBatchSize))
+                        .stream()
+                        .map(Appointment::getId)
+                        .toList();
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                List<AppointmentDailyTotals> moved = appointmentRepository.sumPendingByIds(ids);
+                int updated = appointmentRepository.markNoShowByIds(ids, LocalDateTime.now());
+                businessStatsService.recordBulkStatusChange(moved, Appointment.AppointmentStatus.NO_SHOW);
+                moved.forEach(totals -> userIds.add(totals.getUserId()));
+                return updated;
+            });
+            if (marked == null) {
+                break;
+            }
+            total += marked;
+        }
+        bookingDayGuard.purgeBefore(today);
 
+        if (total > 0) {
+            eventPublisher.publishEvent(new AppointmentsBatchChangedEvent(
+                    userIds, total, AppointmentChangedEvent.ChangeType.STATUS_CHANGED));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,267 @@
+package com.mawa3id.service;
+
+import com.mawa3id.dto.ReminderTemplateDTO;
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.ReminderLog;
+import com.mawa3id.model.ReminderTemplate;
+import com.mawa3id.model.Service;
+import com.mawa3id.model.User;
+import com.mawa3id.repository.ReminderTemplateRepository;
+import com.mawa3id.repository.ServiceRepository;
+import com.mawa3id.repository.UserRepository;
+import com.mawa3id.util.AfterCommit;
+import com.mawa3id.util.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Reminder texts per business, service and locale. Templates are compiled once into
+// literal/placeholder arrays and cached per service together with the service and
+// business names, so rendering a reminder needs no database lookup. Changing a template
+// or the business profile evicts all of the business's services; editing or deleting a
+// service evicts just that one.
+@Component
+@Transactional
+public class ReminderTemplateService {
+
+    public static final String DEFAULT_LOCALE = "en";
+    public static final Set<String> SUPPORTED_LOCALES = Set.of("ar", "fr", "en");
+
+    private static final Map<String, Map<ReminderLog.ReminderType, CompiledTemplate>> DEFAULTS = Map.of(
+            "en", defaults(
+                    "Hi {customerName}, your appointment for {serviceName} is scheduled at {time}. Reply YES to confirm or NO to cancel.",
+                    "Reminder: Your appointment for {serviceName} is in 6 hours at {time}. Please confirm."),
+            "fr", defaults(
+                    "Bonjour {customerName}, votre rendez-vous pour {serviceName} est prévu à {time}. Répondez OUI pour confirmer ou NON pour annuler.",
+                    "Rappel : votre rendez-vous pour {serviceName} est dans 6 heures à {time}. Merci de confirmer."),
+            "ar", defaults(
+                    "مرحبا {customerName}، موعدك لـ {serviceName} محدد على الساعة {time}. أجب بنعم للتأكيد أو لا للإلغاء.",
+                    "تذكير: موعدك لـ {serviceName} بعد 6 ساعات على الساعة {time}. المرجو التأكيد.")
+    );
+
+    @Autowired
+    private ReminderTemplateRepository reminderTemplateRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.reminders.template-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.reminders.template-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private BoundedTtlCache<UUID, ServiceTemplates> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedTtlCache<>(maxEntries, ttlMs);
+    }
+
+    @Transactional(readOnly = true)
+    public String render(Appointment appointment, ReminderLog.ReminderType type) {
+        ServiceTemplates templates = cache.get(appointment.getServiceId(), () -> load(appointment.getServiceId()));
+        return templates.templates().get(type).render(appointment, templates.serviceName(), templates.businessName());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReminderTemplateDTO> getTemplates(UUID userId) {
+        return reminderTemplateRepository.findByUserId(userId)
+                .stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    public ReminderTemplateDTO saveTemplate(UUID userId, ReminderTemplateDTO request) {
+        String locale = normalizeLocale(request.getLocale());
+        CompiledTemplate.compile(request.getBody());
+        if (request.getServiceId() != null) {
+            Service service = serviceRepository.findById(request.getServiceId())
+                    .orElseThrow(() -> new RuntimeException("Service not found"));
+            if (!service.getUserId().equals(userId)) {
+                throw new RuntimeException("Unauthorized to use this service");
+            }
+        }
+
+        ReminderTemplate template = reminderTemplateRepository
+                .findByUserIdAndScopeIdAndTypeAndLocale(userId, ReminderTemplate.scopeOf(request.getServiceId()),
+                        request.getType(), locale)
+                .orElseGet(ReminderTemplate::new);
+        template.setUserId(userId);
+        template.setServiceId(request.getServiceId());
+        template.setType(request.getType());
+        template.setLocale(locale);
+        template.setBody(request.getBody());
+        ReminderTemplate saved = reminderTemplateRepository.save(template);
+        evictBusiness(userId);
+        return toDTO(saved);
+    }
+
+    public void deleteTemplate(UUID templateId, UUID userId) {
+        ReminderTemplate template = reminderTemplateRepository.findById(templateId)
+                .orElseThrow(() -> new RuntimeException("Reminder template not found"));
+
+        if (!template.getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized to delete this reminder template");
+        }
+
+        reminderTemplateRepository.delete(template);
+        evictBusiness(userId);
+    }
+
+    public void evictService(UUID serviceId) {
+        AfterCommit.run(() -> cache.invalidate(serviceId));
+    }
+
+    public void evictBusiness(UUID userId) {
+        AfterCommit.run(() -> cache.invalidateIf((serviceId, templates) -> templates.userId().equals(userId)));
+    }
+
+    public static String normalizeLocale(String locale) {
+        String normalized = locale == null ? DEFAULT_LOCALE : locale.trim().toLowerCase();
+        if (!SUPPORTED_LOCALES.contains(normalized)) {
+            throw new RuntimeException("Unsupported locale: " + locale);
+        }
+        return normalized;
+    }
+
+    private ServiceTemplates load(UUID serviceId) {
+        Service service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new RuntimeException("Service not found"));
+        User user = userRepository.findById(service.getUserId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        String locale = user.getLocale() != null && SUPPORTED_LOCALES.contains(user.getLocale())
+                ? user.getLocale()
+                : DEFAULT_LOCALE;
+
+        // A service-specific template wins over the business-wide one, which wins over the built-in default
+        Map<ReminderLog.ReminderType, String> forService = new EnumMap<>(ReminderLog.ReminderType.class);
+        Map<ReminderLog.ReminderType, String> businessWide = new EnumMap<>(ReminderLog.ReminderType.class);
+        for (ReminderTemplate template : reminderTemplateRepository.findByUserIdAndLocale(user.getId(), locale)) {
+            if (template.getServiceId() == null) {
+                businessWide.put(template.getType(), template.getBody());
+            } else if (template.getServiceId().equals(serviceId)) {
+                forService.put(template.getType(), template.getBody());
+            }
+        }
+
+        Map<ReminderLog.ReminderType, CompiledTemplate> templates = new EnumMap<>(ReminderLog.ReminderType.class);
+        for (ReminderLog.ReminderType type : ReminderLog.ReminderType.values()) {
+            String body = forService.getOrDefault(type, businessWide.get(type));
+            templates.put(type, body != null ? CompiledTemplate.compile(body) : DEFAULTS.get(locale).get(type));
+        }
+        return new ServiceTemplates(user.getId(), service.getName(), user.getBusinessName(), templates);
+    }
+
+    private ReminderTemplateDTO toDTO(ReminderTemplate template) {
+        return new ReminderTemplateDTO(
+                template.getId(),
+                template.getServiceId(),
+                template.getType(),
+                template.getLocale(),
+                template.getBody(),
+                template.getCreatedAt(),
+                template.getUpdatedAt()
+        );
+    }
+
+    private static Map<ReminderLog.ReminderType, CompiledTemplate> defaults(String firstReminder, String followUp) {
+        Map<ReminderLog.ReminderType, CompiledTemplate> templates = new EnumMap<>(ReminderLog.ReminderType.class);
+        templates.put(ReminderLog.ReminderType.FIRST_REMINDER, CompiledTemplate.compile(firstReminder));
+        templates.put(ReminderLog.ReminderType.FOLLOW_UP, CompiledTemplate.compile(followUp));
+        return templates;
+    }
+
+    private record ServiceTemplates(UUID userId, String serviceName, String businessName,
+                                    Map<ReminderLog.ReminderType, CompiledTemplate> templates) {
+    }
+
+    enum Placeholder {
+        CUSTOMER_NAME("customerName"),
+        SERVICE_NAME("serviceName"),
+        BUSINESS_NAME("businessName"),
+        DATE("date"),
+        TIME("time");
+
+        private final String token;
+
+        Placeholder(String token) {
+            this.token = token;
+        }
+
+        static Placeholder fromToken(String token) {
+            for (Placeholder placeholder : values()) {
+                if (placeholder.token.equals(token)) {
+                    return placeholder;
+                }
+            }
+            throw new RuntimeException("Unknown template placeholder: {" + token + "}");
+        }
+    }
+
+    // literals[i] is followed by placeholders[i]; the last literal closes the message
+    static final class CompiledTemplate {
+        private final String[] literals;
+        private final Placeholder[] placeholders;
+        private final int literalLength;
+
+        private CompiledTemplate(String[] literals, Placeholder[] placeholders) {
+            this.literals = literals;
+            this.placeholders = placeholders;
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalLength = length;
+        }
+
+        static CompiledTemplate compile(String body) {
+            List<String> literals = new ArrayList<>();
+            List<Placeholder> placeholders = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                int open = body.indexOf('{', position);
+                if (open < 0) {
+                    break;
+                }
+                int close = body.indexOf('}', open);
+                if (close < 0) {
+                    throw new RuntimeException("Unclosed placeholder in template");
+                }
+                literals.add(body.substring(position, open));
+                placeholders.add(Placeholder.fromToken(body.substring(open + 1, close).trim()));
+                position = close + 1;
+            }
+            literals.add(body.substring(position));
+            return new CompiledTemplate(literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]));
+        }
+
+        String render(Appointment appointment, String serviceName, String businessName) {
+            StringBuilder message = new StringBuilder(literalLength + 16 * placeholders.length);
+            for (int i = 0; i < placeholders.length; i++) {
+                message.append(literals[i]);
+                switch (placeholders[i]) {
+                    case CUSTOMER_NAME -> message.append(appointment.getCustomerName());
+                    case SERVICE_NAME -> message.append(serviceName);
+                    case BUSINESS_NAME -> message.append(businessName);
+                    case DATE -> message.append(appointment.getAppointmentDate());
+                    case TIME -> message.append(appointment.getStartTime());
+                }
+            }
+            return message.append(literals[literals.length - 1]).toString();
+        }
+    }
+}
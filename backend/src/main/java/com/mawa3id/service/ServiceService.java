@@ -18,6 +18,12 @@ public class ServiceService {
     @Autowired
     private ServiceRepository serviceRepository;
 
+    @Autowired
+    private ReminderTemplateService reminderTemplateService;
+
+    @Autowired
+    private PublicBookingProfileCache publicBookingProfileCache;
+
     public Service createService(UUID userId, ServiceDTO request) {
         Service service = new Service();
         service.setUserId(userId);
@@ -25,7 +31,9 @@ public class ServiceService {
         service.setDurationMinutes(request.getDurationMinutes());
         service.setPrice(request.getPrice());
 
-        return serviceRepository.save(service);
+        Service saved = serviceRepository.save(service);
+        publicBookingProfileCache.evict(userId);
+        return saved;
     }
 
     public List<ServiceDTO> getServicesByUserId(UUID userId) {
@@ -53,7 +61,10 @@ public class ServiceService {
         service.setDurationMinutes(request.getDurationMinutes());
         service.setPrice(request.getPrice());
 
-        return serviceRepository.save(service);
+        Service saved = serviceRepository.save(service);
+        reminderTemplateService.evictService(serviceId);
+        publicBookingProfileCache.evict(userId);
+        return saved;
     }
 
     public void deleteService(UUID serviceId, UUID userId) {
@@ -65,6 +76,8 @@ public class ServiceService {
         }
 
         serviceRepository.delete(service);
+        reminderTemplateService.evictService(serviceId);
+        publicBookingProfileCache.evict(userId);
     }
 
     private ServiceDTO toDTO(Service service) {
@@ -2,6 +2,7 @@ package com.mawa3id.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -19,7 +20,17 @@ public class SmsNotificationService {
     @Value("${twilio.phone_number:}")
     private String fromPhoneNumber;
 
+    @Autowired
+    private SmsRateLimiter smsRateLimiter;
+
     public void sendSMS(String toPhoneNumber, String message) {
+        try {
+            smsRateLimiter.acquire(fromPhoneNumber);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to send SMS", e);
+        }
+
         try {
             // For MVP, we'll log the SMS instead of actually sending it
             // In production, integrate with Twilio or local SMS provider
@@ -0,0 +1,59 @@
+package com.mawa3id.service;
+
+import com.mawa3id.model.ReminderLog;
+import com.mawa3id.model.SmsOutboxMessage;
+import com.mawa3id.repository.SmsOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@Transactional
+public class SmsOutboxService {
+
+    @Autowired
+    private SmsOutboxRepository smsOutboxRepository;
+
+    @Value("${app.sms.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    // Joins the caller's transaction so the message commits together with the business change
+    public SmsOutboxMessage enqueue(String toPhone, String body, UUID appointmentId, ReminderLog.ReminderType reminderType) {
+        SmsOutboxMessage message = new SmsOutboxMessage();
+        message.setToPhone(toPhone);
+        message.setBody(body);
+        message.setAppointmentId(appointmentId);
+        message.setReminderType(reminderType);
+        message.setStatus(SmsOutboxMessage.OutboxStatus.PENDING);
+        message.setAvailableAt(LocalDateTime.now());
+        return smsOutboxRepository.save(message);
+    }
+
+    // Takes a lease on up to limit rows; if the worker dies before completing them
+    // the lease runs out and another worker picks them up again
+    public List<SmsOutboxMessage> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SmsOutboxMessage> claimed = smsOutboxRepository.lockAvailable(now, limit);
+        for (SmsOutboxMessage message : claimed) {
+            message.setAttemptCount(message.getAttemptCount() + 1);
+            message.setAvailableAt(now.plusNanos(leaseMs * 1_000_000));
+        }
+        return smsOutboxRepository.saveAll(claimed);
+    }
+
+    // Pushes the lease of rows still being sent forward by another lease period
+    public void renewLease(List<UUID> ids) {
+        if (!ids.isEmpty()) {
+            smsOutboxRepository.extendLease(ids, LocalDateTime.now().plusNanos(leaseMs * 1_000_000));
+        }
+    }
+
+    public int purgeFinished(LocalDateTime createdBefore, int limit) {
+        return smsOutboxRepository.deleteFinishedBefore(createdBefore, limit);
+    }
+}
@@ -0,0 +1,81 @@
+package com.mawa3id.service;
+
+import com.mawa3id.util.GcraBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-sender token bucket in front of the SMS provider. Callers over the rate are
+// held until their slot comes up instead of being rejected.
+@Component
+public class SmsRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsRateLimiter.class);
+
+    @Value("${app.sms.rate-per-second:10}")
+    private double ratePerSecond;
+
+    @Value("${app.sms.burst:20}")
+    private int burst;
+
+    private final Map<String, GcraBucket> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong delayedAcquisitions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public void acquire(String sender) throws InterruptedException {
+        GcraBucket bucket = buckets.computeIfAbsent(sender == null ? "" : sender,
+                key -> new GcraBucket(ratePerSecond, burst));
+
+        long waitNanos;
+        waiting.incrementAndGet();
+        try {
+            waitNanos = bucket.acquire();
+        } finally {
+            waiting.decrementAndGet();
+        }
+        acquisitions.incrementAndGet();
+        if (waitNanos > 0) {
+            delayedAcquisitions.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+    }
+
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.get();
+    }
+
+    public long getDelayedAcquisitions() {
+        return delayedAcquisitions.get();
+    }
+
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get());
+    }
+
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    @Scheduled(fixedRateString = "${app.sms.stats-log-interval-ms:300000}")
+    public void logStats() {
+        logger.info("SMS rate limiter: queueDepth={}, acquisitions={}, delayed={}, totalWaitMs={}, maxWaitMs={}",
+                getQueueDepth(), getAcquisitions(), getDelayedAcquisitions(), getTotalWaitMillis(), getMaxWaitMillis());
+    }
+}
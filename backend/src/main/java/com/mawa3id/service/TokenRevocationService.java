@@ -0,0 +1,89 @@
+package com.mawa3id.service;
+
+import com.mawa3id.model.RevokedToken;
+import com.mawa3id.repository.RevokedTokenRepository;
+import com.mawa3id.util.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Tracks refresh tokens that have been used, and token families (all refresh tokens of
+// one login) that have been revoked after a reuse. The revoked_tokens table is the source
+// of truth and its primary key makes each token single-use across nodes; the in-memory cache
+// answers repeat lookups without a query, each entry kept until its token would have expired.
+@Component
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.jwt.revocation.max-entries:100000}")
+    private int maxEntries;
+
+    private BoundedTtlCache<String, Boolean> revoked;
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    void init() {
+        revoked = new BoundedTtlCache<>(maxEntries);
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (revoked.getIfPresent(tokenId) != null) {
+            return true;
+        }
+        return revokedTokenRepository.findById(tokenId)
+                .map(token -> {
+                    revoked.put(tokenId, true, toMillis(token.getExpiresAt()));
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    // Returns false if the token was already used, so only one caller can ever rotate it
+    public boolean revoke(String tokenId, long expiresAtMillis) {
+        if (revoked.getIfPresent(tokenId) != null) {
+            return false;
+        }
+        try {
+            newTransaction.executeWithoutResult(status -> revokedTokenRepository.saveAndFlush(new RevokedToken(tokenId,
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault()))));
+        } catch (DataIntegrityViolationException e) {
+            // Primary key clash: another request or node used this token first
+            revoked.put(tokenId, true, expiresAtMillis);
+            return false;
+        }
+        revoked.put(tokenId, true, expiresAtMillis);
+        return true;
+    }
+
+    @Scheduled(fixedRateString = "${app.jwt.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        revoked.purgeExpired();
+        Integer deleted = newTransaction.execute(status -> revokedTokenRepository.deleteExpired(LocalDateTime.now()));
+        logger.info("Purged {} expired revoked tokens", deleted);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
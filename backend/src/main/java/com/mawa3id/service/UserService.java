@@ -2,18 +2,19 @@ package com.mawa3id.service;
 
 import com.mawa3id.dto.AuthResponse;
 import com.mawa3id.dto.LoginRequest;
+import com.mawa3id.dto.RefreshTokenRequest;
 import com.mawa3id.dto.RegisterRequest;
 import com.mawa3id.model.User;
 import com.mawa3id.repository.UserRepository;
 import com.mawa3id.security.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
@@ -23,12 +24,26 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
 
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
-    public User registerUser(RegisterRequest request) {
+    @Autowired
+    private ReminderTemplateService reminderTemplateService;
+
+    @Autowired
+    private PublicBookingProfileCache publicBookingProfileCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // The password is hashed on the BCrypt pool; the request thread is released until the user is saved
+    public CompletableFuture<User> registerUser(RegisterRequest request, String clientIp) {
+        loginThrottle.recordRegistration(clientIp);
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already registered");
         }
@@ -37,28 +52,69 @@ public class UserService {
         user.setBusinessName(request.getBusinessName());
         user.setEmail(request.getEmail());
         user.setPhone(request.getPhone());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
         user.setSubscriptionPlan(User.SubscriptionPlan.STARTER);
+        user.setLocale(resolveLocale(request.getLocale()));
 
-        return userRepository.save(user);
+        return passwordHasher.encode(request.getPassword())
+                .thenApply(passwordHash -> {
+                    user.setPasswordHash(passwordHash);
+                    return userRepository.save(user);
+                });
     }
 
-    public AuthResponse loginUser(LoginRequest request) {
+    // The password check runs on the BCrypt pool; the request thread is released until it completes
+    public CompletableFuture<AuthResponse> loginUser(LoginRequest request, String clientIp) {
+        loginThrottle.recordAttempt(request.getEmail(), clientIp);
+
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
+        return passwordHasher.matches(request.getPassword(), user.getPasswordHash())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
+                    }
+                    loginThrottle.recordSuccess(request.getEmail());
+                    return issueTokens(user, "Login successful");
+                });
+    }
+
+    // Exchanges a refresh token for a new token pair; each refresh token can be used once.
+    // A rotated token coming back means it leaked, so every token of that login is revoked.
+    public AuthResponse refreshToken(RefreshTokenRequest request) {
+        JwtTokenProvider.RefreshToken refreshToken = jwtTokenProvider.parseRefreshToken(request.getRefreshToken())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+
+        if (tokenRevocationService.isRevoked(refreshToken.familyId())) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token revoked");
+        }
+        if (tokenRevocationService.isRevoked(refreshToken.tokenId())
+                || !tokenRevocationService.revoke(refreshToken.tokenId(), refreshToken.expiresAtMillis())) {
+            // Later tokens of the family expire at most one refresh lifetime from now
+            tokenRevocationService.revoke(refreshToken.familyId(),
+                    System.currentTimeMillis() + jwtTokenProvider.getRefreshTokenExpirationInMs());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token already used");
         }
 
+        User user = userRepository.findById(refreshToken.userId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+        return issueTokens(user, "Token refreshed", refreshToken.familyId());
+    }
+
+    // Starts a new refresh token family
+    public AuthResponse issueTokens(User user, String message) {
+        return issueTokens(user, message, UUID.randomUUID().toString());
+    }
+
+    private AuthResponse issueTokens(User user, String message, String familyId) {
         String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getId(), user.getEmail());
+        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getId(), user.getEmail(), familyId);
 
         return AuthResponse.builder()
                 .token(token)
                 .refreshToken(refreshToken)
                 .user(AuthResponse.UserDTO.fromUser(user))
-                .message("Login successful")
+                .message(message)
                 .build();
     }
 
@@ -71,6 +127,20 @@ public class UserService {
         User user = getUserById(userId);
         user.setBusinessName(request.getBusinessName());
         user.setPhone(request.getPhone());
-        return userRepository.save(user);
+        if (request.getLocale() != null) {
+            user.setLocale(resolveLocale(request.getLocale()));
+        }
+        User saved = userRepository.save(user);
+        reminderTemplateService.evictBusiness(userId);
+        publicBookingProfileCache.evict(userId);
+        return saved;
+    }
+
+    private String resolveLocale(String locale) {
+        try {
+            return ReminderTemplateService.normalizeLocale(locale);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.mawa3id.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+// In-memory LRU map holding at most maxEntries, where every entry also carries an expiry
+// time and is dropped on the first read after it. Loads run outside the map lock; a load
+// that overlapped an invalidation is returned but not stored, so it cannot put back a
+// value the invalidation was meant to remove. Evictions count both LRU and expired drops.
+public class BoundedTtlCache<K, V> {
+
+    private final long ttlMs;
+    private final Map<K, Entry<V>> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // For callers that give each entry its own expiry through put
+    public BoundedTtlCache(int maxEntries) {
+        this(maxEntries, 0);
+    }
+
+    public BoundedTtlCache(int maxEntries, long ttlMs) {
+        this.ttlMs = ttlMs;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        return get(key, loader, System.currentTimeMillis());
+    }
+
+    V get(K key, Supplier<V> loader, long now) {
+        V value = getIfPresent(key, now);
+        if (value != null) {
+            hits.incrementAndGet();
+            return value;
+        }
+        misses.incrementAndGet();
+        long loadGeneration = generation.get();
+        value = loader.get();
+        if (generation.get() == loadGeneration) {
+            entries.put(key, new Entry<>(value, now + ttlMs));
+        }
+        return value;
+    }
+
+    public V getIfPresent(K key) {
+        return getIfPresent(key, System.currentTimeMillis());
+    }
+
+    V getIfPresent(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= now) {
+            if (entries.remove(key, entry)) {
+                evictions.incrementAndGet();
+            }
+            return null;
+        }
+        return entry.value();
+    }
+
+    public void put(K key, V value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    public void invalidate(K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    public void invalidateAll(Collection<? extends K> keys) {
+        generation.incrementAndGet();
+        entries.keySet().removeAll(keys);
+    }
+
+    public void invalidateIf(BiPredicate<? super K, ? super V> predicate) {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue().value()));
+        }
+    }
+
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
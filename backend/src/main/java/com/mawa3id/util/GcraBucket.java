@@ -0,0 +1,63 @@
+package com.mawa3id.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket in GCRA form: a single CAS'd "theoretical arrival time" stands in for the
+// token count, so acquiring is lock-free and an idle bucket carries no state worth keeping.
+// Times are System.nanoTime() values.
+public class GcraBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public GcraBucket(double ratePerSecond, int burst) {
+        this((long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond), burst);
+    }
+
+    public GcraBucket(long intervalNanos, int burst) {
+        this.intervalNanos = Math.max(1, intervalNanos);
+        this.toleranceNanos = this.intervalNanos * (Math.max(1, burst) - 1);
+    }
+
+    // Takes a token and returns 0, or takes nothing and returns how long until one is available
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = Math.max(current, now);
+            long waitNanos = base - toleranceNanos - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // Reserves the next token and sleeps until it is due; returns how long the caller waited
+    public long acquire() throws InterruptedException {
+        long waitNanos = reserve(System.nanoTime());
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return Math.max(0, waitNanos);
+    }
+
+    // A bucket whose arrival time has passed is full again, same as a new one
+    public boolean isIdle(long now) {
+        long arrival = theoreticalArrival.get();
+        return arrival == Long.MIN_VALUE || arrival - now <= 0;
+    }
+
+    long reserve(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = Math.max(current, now);
+            if (theoreticalArrival.compareAndSet(current, base + intervalNanos)) {
+                return base - toleranceNanos - now;
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mawa3id.controller;
+
+import com.mawa3id.dto.ServiceDTO;
+import com.mawa3id.model.Service;
+import com.mawa3id.model.User;
+import com.mawa3id.repository.ServiceRepository;
+import com.mawa3id.repository.UserRepository;
+import com.mawa3id.service.ServiceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.public-booking.cache.ttl-ms=200")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PublicBookingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ServiceService serviceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    private UUID businessId;
+
+    @BeforeEach
+    void setUp() {
+        User business = new User();
+        business.setBusinessName("Test Salon");
+        business.setEmail(UUID.randomUUID() + "@example.com");
+        business.setPhone("+212600000000");
+        business.setPasswordHash("x");
+        businessId = userRepository.save(business).getId();
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        String etag = fetchETag();
+
+        mockMvc.perform(get("/api/public/booking/{businessId}", businessId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void changingAServiceChangesTheETag() throws Exception {
+        String etag = fetchETag();
+
+        serviceService.createService(businessId, new ServiceDTO(null, "Haircut", 60, new BigDecimal("100.00"), null, null));
+
+        mockMvc.perform(get("/api/public/booking/{businessId}", businessId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.services[0].name").value("Haircut"));
+        assertThat(fetchETag()).isNotEqualTo(etag);
+    }
+
+    // Stands in for a change made on another node, whose eviction never reaches this one
+    @Test
+    void changeWithoutEvictionShowsUpAfterTheTtl() throws Exception {
+        String etag = fetchETag();
+
+        Service service = new Service();
+        service.setUserId(businessId);
+        service.setName("Haircut");
+        service.setDurationMinutes(60);
+        service.setPrice(new BigDecimal("100.00"));
+        serviceRepository.save(service);
+        assertThat(fetchETag()).isEqualTo(etag);
+
+        Thread.sleep(300);
+        assertThat(fetchETag()).isNotEqualTo(etag);
+    }
+
+    private String fetchETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/public/booking/{businessId}", businessId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+}
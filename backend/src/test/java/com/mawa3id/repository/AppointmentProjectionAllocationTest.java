@@ -0,0 +1,113 @@
+package com.mawa3id.repository;
+
+import com.mawa3id.dto.AppointmentDTO;
+import com.mawa3id.model.Appointment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Allocation benchmark for the appointment list read path: managed entities mapped to DTOs
+// versus the JPQL constructor projection. Bytes are measured per read on the calling thread.
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentProjectionAllocationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentProjectionAllocationTest.class);
+
+    private static final int APPOINTMENTS = 2000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        UUID serviceId = UUID.randomUUID();
+        LocalDate firstDay = LocalDate.now();
+        List<Appointment> appointments = new ArrayList<>(APPOINTMENTS);
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setUserId(userId);
+            appointment.setServiceId(serviceId);
+            appointment.setCustomerName("Customer " + i);
+            appointment.setCustomerPhone("+2126" + String.format("%08d", i));
+            appointment.setAppointmentDate(firstDay.plusDays(i / 16));
+            appointment.setStartTime(LocalTime.of(9, 0).plusMinutes(30L * (i % 16)));
+            appointment.setEndTime(LocalTime.of(9, 30).plusMinutes(30L * (i % 16)));
+            appointment.setStatus(Appointment.AppointmentStatus.PENDING);
+            appointment.setConfirmationToken(UUID.randomUUID().toString());
+            appointments.add(appointment);
+        }
+        appointmentRepository.saveAll(appointments);
+    }
+
+    @Test
+    void projectionAllocatesLessThanEntityMapping() {
+        long entityBytes = measure(() -> appointmentRepository.findByUserId(userId)
+                .stream()
+                .map(AppointmentProjectionAllocationTest::toDTO)
+                .collect(Collectors.toList()));
+        long projectionBytes = measure(() -> appointmentRepository.findDTOsByUserId(userId));
+
+        logger.info("Appointment list of {} rows: entity mapping {} KB/read, projection {} KB/read",
+                APPOINTMENTS, entityBytes / 1024, projectionBytes / 1024);
+        assertThat(projectionBytes).isLessThan(entityBytes);
+    }
+
+    private long measure(Supplier<List<AppointmentDTO>> read) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            readInTransaction(read);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            readInTransaction(read);
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / MEASURED_ROUNDS;
+    }
+
+    // The service reads inside a transaction, so entities are registered and snapshotted as in production
+    private void readInTransaction(Supplier<List<AppointmentDTO>> read) {
+        List<AppointmentDTO> result = transactionTemplate.execute(status -> read.get());
+        assertThat(result).hasSize(APPOINTMENTS);
+    }
+
+    private static AppointmentDTO toDTO(Appointment appointment) {
+        AppointmentDTO dto = new AppointmentDTO();
+        dto.setId(appointment.getId());
+        dto.setServiceId(appointment.getServiceId());
+        dto.setCustomerName(appointment.getCustomerName());
+        dto.setCustomerPhone(appointment.getCustomerPhone());
+        dto.setAppointmentDate(appointment.getAppointmentDate());
+        dto.setStartTime(appointment.getStartTime());
+        dto.setEndTime(appointment.getEndTime());
+        dto.setStatus(appointment.getStatus().name());
+        dto.setConfirmationToken(appointment.getConfirmationToken());
+        dto.setCreatedAt(appointment.getCreatedAt());
+        dto.setUpdatedAt(appointment.getUpdatedAt());
+        return dto;
+    }
+}
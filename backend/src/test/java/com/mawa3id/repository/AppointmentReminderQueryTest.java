@@ -0,0 +1,83 @@
+package com.mawa3id.repository;
+
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.ReminderLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentReminderQueryTest {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ReminderLogRepository reminderLogRepository;
+
+    private LocalDate date;
+    private Appointment withoutLog;
+    private Appointment withFirstReminder;
+    private Appointment cancelled;
+
+    @BeforeEach
+    void setUp() {
+        date = LocalDate.now().plusDays(30);
+        withoutLog = appointment(LocalTime.of(9, 0), Appointment.AppointmentStatus.PENDING);
+        withFirstReminder = appointment(LocalTime.of(10, 0), Appointment.AppointmentStatus.PENDING);
+        cancelled = appointment(LocalTime.of(11, 0), Appointment.AppointmentStatus.CANCELLED);
+
+        ReminderLog log = new ReminderLog();
+        log.setAppointmentId(withFirstReminder.getId());
+        log.setType(ReminderLog.ReminderType.FIRST_REMINDER);
+        log.setStatus(ReminderLog.ReminderStatus.QUEUED);
+        reminderLogRepository.save(log);
+    }
+
+    @Test
+    void dueBatchSkipsAppointmentsWithALogOrNotPending() {
+        List<UUID> ids = List.of(withoutLog.getId(), withFirstReminder.getId(), cancelled.getId());
+
+        assertThat(appointmentRepository.findPendingWithoutReminder(ids, ReminderLog.ReminderType.FIRST_REMINDER))
+                .extracting(Appointment::getId)
+                .containsExactly(withoutLog.getId());
+        assertThat(appointmentRepository.findPendingWithoutReminder(ids, ReminderLog.ReminderType.FOLLOW_UP))
+                .extracting(Appointment::getId)
+                .containsExactlyInAnyOrder(withoutLog.getId(), withFirstReminder.getId());
+    }
+
+    @Test
+    void seedWindowReturnsOnlyAppointmentsWithoutTheLog() {
+        List<Appointment> found = appointmentRepository.findWithoutReminder(Appointment.AppointmentStatus.PENDING,
+                date, LocalTime.of(9, 30), date, LocalTime.of(23, 59), ReminderLog.ReminderType.FOLLOW_UP);
+        assertThat(found).extracting(Appointment::getId).containsExactly(withFirstReminder.getId());
+
+        found = appointmentRepository.findWithoutReminder(Appointment.AppointmentStatus.PENDING,
+                date, LocalTime.MIN, date, LocalTime.of(23, 59), ReminderLog.ReminderType.FIRST_REMINDER);
+        assertThat(found).extracting(Appointment::getId).containsExactly(withoutLog.getId());
+    }
+
+    private Appointment appointment(LocalTime startTime, Appointment.AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        appointment.setUserId(UUID.randomUUID());
+        appointment.setServiceId(UUID.randomUUID());
+        appointment.setCustomerName("Customer");
+        appointment.setCustomerPhone("+212611111111");
+        appointment.setAppointmentDate(date);
+        appointment.setStartTime(startTime);
+        appointment.setEndTime(startTime.plusMinutes(30));
+        appointment.setStatus(status);
+        appointment.setConfirmationToken(UUID.randomUUID().toString());
+        return appointmentRepository.save(appointment);
+    }
+}
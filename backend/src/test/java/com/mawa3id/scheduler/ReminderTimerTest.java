@@ -0,0 +1,77 @@
+package com.mawa3id.scheduler;
+
+import com.mawa3id.event.AppointmentChangedEvent;
+import com.mawa3id.event.ClusterMembershipChangedEvent;
+import com.mawa3id.model.Appointment;
+import com.mawa3id.repository.AppointmentRepository;
+import com.mawa3id.service.ClusterService;
+import com.mawa3id.service.ReminderDispatcher;
+import com.mawa3id.service.ReminderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReminderTimerTest {
+
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final ClusterService clusterService = mock(ClusterService.class);
+
+    private ReminderTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        timer = new ReminderTimer();
+        ReflectionTestUtils.setField(timer, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(timer, "reminderService", mock(ReminderService.class));
+        ReflectionTestUtils.setField(timer, "reminderDispatcher", mock(ReminderDispatcher.class));
+        ReflectionTestUtils.setField(timer, "clusterService", clusterService);
+        ReflectionTestUtils.setField(timer, "horizonHours", 48);
+    }
+
+    @Test
+    void membershipChangeDropsDeadlinesOfBusinessesNowOwnedElsewhere() {
+        Appointment kept = appointment();
+        Appointment moved = appointment();
+        queue(kept);
+        queue(moved);
+        assertThat(timer.getQueueSize()).isEqualTo(6);
+
+        when(clusterService.ownsUser(kept.getUserId())).thenReturn(true);
+        when(clusterService.ownsUser(moved.getUserId())).thenReturn(false);
+        timer.onMembershipChanged(new ClusterMembershipChangedEvent(1, 2));
+
+        assertThat(timer.getQueueSize()).isEqualTo(3);
+
+        // A dropped deadline can be queued again if the business moves back
+        when(clusterService.ownsUser(moved.getUserId())).thenReturn(true);
+        queue(moved);
+        assertThat(timer.getQueueSize()).isEqualTo(6);
+    }
+
+    // Starts in 30 hours, so all three deadlines (24 h, 6 h, start) are still ahead
+    private Appointment appointment() {
+        LocalDateTime start = LocalDateTime.now().plusHours(30);
+        Appointment appointment = new Appointment();
+        appointment.setId(UUID.randomUUID());
+        appointment.setUserId(UUID.randomUUID());
+        appointment.setAppointmentDate(start.toLocalDate());
+        appointment.setStartTime(start.toLocalTime());
+        appointment.setEndTime(start.toLocalTime());
+        appointment.setStatus(Appointment.AppointmentStatus.PENDING);
+        return appointment;
+    }
+
+    private void queue(Appointment appointment) {
+        when(appointmentRepository.findById(appointment.getId())).thenReturn(Optional.of(appointment));
+        timer.onAppointmentChanged(new AppointmentChangedEvent(
+                appointment.getUserId(), appointment.getId(), AppointmentChangedEvent.ChangeType.CREATED));
+    }
+}
@@ -0,0 +1,122 @@
+package com.mawa3id.scheduler;
+
+import com.mawa3id.model.SmsOutboxMessage;
+import com.mawa3id.service.ReminderService;
+import com.mawa3id.service.SmsNotificationService;
+import com.mawa3id.service.SmsOutboxService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Throughput of the parallel send stage against a stub provider with a fixed round-trip latency
+class SmsOutboxWorkerThroughputTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsOutboxWorkerThroughputTest.class);
+
+    private static final int MESSAGES = 256;
+    private static final int CONCURRENCY = 32;
+    private static final long PROVIDER_LATENCY_MS = 50;
+
+    private final SmsOutboxService smsOutboxService = mock(SmsOutboxService.class);
+    private final SmsNotificationService smsNotificationService = mock(SmsNotificationService.class);
+    private final ReminderService reminderService = mock(ReminderService.class);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private SmsOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        worker = new SmsOutboxWorker();
+        ReflectionTestUtils.setField(worker, "smsOutboxService", smsOutboxService);
+        ReflectionTestUtils.setField(worker, "smsNotificationService", smsNotificationService);
+        ReflectionTestUtils.setField(worker, "reminderService", reminderService);
+        ReflectionTestUtils.setField(worker, "concurrency", CONCURRENCY);
+        ReflectionTestUtils.setField(worker, "batchSize", MESSAGES);
+        ReflectionTestUtils.setField(worker, "leaseMs", 60_000L);
+        worker.init();
+
+        doAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(PROVIDER_LATENCY_MS);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return null;
+        }).when(smsNotificationService).sendSMS(anyString(), anyString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendsInParallelWithinTheConcurrencyLimit() {
+        when(smsOutboxService.claim(anyInt())).thenReturn(messages(MESSAGES), List.of());
+
+        long started = System.nanoTime();
+        worker.drain();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        ArgumentCaptor<List<SmsOutboxMessage>> delivered = ArgumentCaptor.forClass(List.class);
+        verify(reminderService).recordDeliveries(delivered.capture());
+        assertThat(delivered.getValue())
+                .hasSize(MESSAGES)
+                .allMatch(message -> message.getStatus() == SmsOutboxMessage.OutboxStatus.SENT);
+
+        long serialMs = MESSAGES * PROVIDER_LATENCY_MS;
+        logger.info("Sent {} messages in {} ms ({} msg/s) at concurrency {}; serial would take {} ms",
+                MESSAGES, elapsedMs, MESSAGES * 1000L / Math.max(1, elapsedMs), CONCURRENCY, serialMs);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(CONCURRENCY);
+        assertThat(elapsedMs).isLessThan(serialMs / 4);
+    }
+
+    @Test
+    void renewsTheLeaseOfUnsentMessagesWhileTheBatchIsInFlight() {
+        // 256 messages at 32 in flight take about 400 ms, several lease halves of 100 ms
+        ReflectionTestUtils.setField(worker, "leaseMs", 200L);
+        when(smsOutboxService.claim(anyInt())).thenReturn(messages(MESSAGES), List.of());
+
+        worker.drain();
+
+        verify(smsOutboxService, atLeast(2)).renewLease(anyList());
+        verify(reminderService).recordDeliveries(anyList());
+    }
+
+    private static List<SmsOutboxMessage> messages(int count) {
+        List<SmsOutboxMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SmsOutboxMessage message = new SmsOutboxMessage();
+            message.setId(UUID.randomUUID());
+            message.setToPhone("+2126" + String.format("%08d", i));
+            message.setBody("Reminder " + i);
+            message.setStatus(SmsOutboxMessage.OutboxStatus.PENDING);
+            messages.add(message);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,81 @@
+package com.mawa3id.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of authenticating a bearer token, before and after JwtTokenProvider.authenticate.
+// Not a unit test; run with main() from the IDE or via exec:java on the test classpath.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "mawa3id-benchmark-secret-key-with-at-least-256-bits-of-entropy";
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(provider, "refreshTokenExpirationInMs", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.setField(provider, "cacheMaxEntries", 10000);
+        provider.init();
+        token = provider.generateToken(UUID.randomUUID(), "bench@example.com");
+    }
+
+    // The filter used to call validateToken (two parses), getUserIdFromToken and getEmailFromToken,
+    // each building a new key and parser
+    @Benchmark
+    public Object before() {
+        Claims validated = parse();
+        if (parse().getExpiration().before(new Date())) {
+            return null;
+        }
+        UUID userId = UUID.fromString((String) parse().get("userId"));
+        String email = parse().getSubject();
+        return validated != null ? new JwtPrincipal(userId, email, 0) : null;
+    }
+
+    @Benchmark
+    public Optional<JwtPrincipal> after() {
+        return provider.authenticate(token);
+    }
+
+    private Claims parse() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthenticationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.mawa3id.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private static final int CACHE_MAX_ENTRIES = 100;
+
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", "mawa3id-test-secret-key-with-at-least-256-bits-of-entropy");
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(provider, "refreshTokenExpirationInMs", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.setField(provider, "cacheMaxEntries", CACHE_MAX_ENTRIES);
+        provider.init();
+    }
+
+    @Test
+    void authenticatesAccessTokensAndRejectsRefreshTokens() {
+        UUID userId = UUID.randomUUID();
+
+        assertThat(provider.authenticate(provider.generateToken(userId, "owner@example.com")))
+                .hasValueSatisfying(principal -> {
+                    assertThat(principal.userId()).isEqualTo(userId);
+                    assertThat(principal.email()).isEqualTo("owner@example.com");
+                });
+        assertThat(provider.authenticate(provider.generateRefreshToken(userId, "owner@example.com"))).isEmpty();
+        assertThat(provider.authenticate("not-a-token")).isEmpty();
+    }
+
+    @Test
+    void verifiedCacheStaysBounded() {
+        for (int i = 0; i < CACHE_MAX_ENTRIES * 5; i++) {
+            String token = provider.generateToken(UUID.randomUUID(), "user" + i + "@example.com");
+            assertThat(provider.authenticate(token)).isPresent();
+        }
+
+        Map<?, ?> verified = (Map<?, ?>) ReflectionTestUtils.getField(provider, "verified");
+        assertThat(verified).hasSizeLessThanOrEqualTo(CACHE_MAX_ENTRIES);
+    }
+}
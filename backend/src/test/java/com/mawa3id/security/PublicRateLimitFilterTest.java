@@ -0,0 +1,40 @@
+package com.mawa3id.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicRateLimitFilterTest {
+
+    @Test
+    void clientsAreLimitedSeparately() throws Exception {
+        PublicRateLimitFilter filter = new PublicRateLimitFilter();
+        ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "ipRatePerSecond", 1.0);
+        ReflectionTestUtils.setField(filter, "ipBurst", 2);
+        ReflectionTestUtils.setField(filter, "businessRatePerSecond", 1000.0);
+        ReflectionTestUtils.setField(filter, "businessBurst", 1000);
+
+        assertThat(request(filter, "203.0.113.1").getStatus()).isEqualTo(200);
+        assertThat(request(filter, "203.0.113.1").getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = request(filter, "203.0.113.1");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+
+        assertThat(request(filter, "203.0.113.2").getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletResponse request(PublicRateLimitFilter filter, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/booking/b1");
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,220 @@
+package com.mawa3id.service;
+
+import com.mawa3id.dto.AppointmentDTO;
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.Availability;
+import com.mawa3id.model.Service;
+import com.mawa3id.model.User;
+import com.mawa3id.repository.AppointmentRepository;
+import com.mawa3id.repository.AvailabilityRepository;
+import com.mawa3id.repository.ServiceRepository;
+import com.mawa3id.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentServiceConcurrencyTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private BookingScheduleIndex bookingScheduleIndex;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @SpyBean
+    private BookingLocks bookingLocks;
+
+    private UUID businessId;
+    private UUID serviceId;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        User business = new User();
+        business.setBusinessName("Test Salon");
+        business.setEmail(UUID.randomUUID() + "@example.com");
+        business.setPhone("+212600000000");
+        business.setPasswordHash("x");
+        businessId = userRepository.save(business).getId();
+
+        Service service = new Service();
+        service.setUserId(businessId);
+        service.setName("Haircut");
+        service.setDurationMinutes(60);
+        service.setPrice(new BigDecimal("100.00"));
+        serviceId = serviceRepository.save(service).getId();
+
+        date = LocalDate.now().plusDays(7);
+        Availability availability = new Availability();
+        availability.setUserId(businessId);
+        availability.setDayOfWeek(date.getDayOfWeek().getValue() % 7);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(18, 0));
+        availabilityRepository.save(availability);
+    }
+
+    @Test
+    void overlappingConcurrentBookingsHaveExactlyOneWinner() throws Exception {
+        assertThat(race(startTime -> appointmentService.createPublicAppointment(businessId, request(startTime, null))))
+                .isEqualTo(1);
+        assertThat(occupyingCount()).isEqualTo(1);
+    }
+
+    // Stands in for bookings arriving on different nodes: without the in-JVM lock, and through
+    // the dashboard path that skips the schedule index, only the booking_days row lock is left
+    @Test
+    void dayGuardAlonePicksOneWinner() throws Exception {
+        doAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get())
+                .when(bookingLocks).withLock(any(), any(), any());
+
+        assertThat(race(startTime -> appointmentService.createAppointment(businessId, request(startTime, null))))
+                .isEqualTo(1);
+        assertThat(occupyingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void adjacentBookingsOffTheHourDoNotConflict() {
+        appointmentService.createPublicAppointment(businessId, request(LocalTime.of(10, 0), LocalTime.of(10, 32)));
+        appointmentService.createPublicAppointment(businessId, request(LocalTime.of(10, 32), null));
+
+        assertThat(occupyingCount()).isEqualTo(2);
+    }
+
+    @Test
+    void reactivatingACancelledAppointmentChecksForOverlaps() {
+        Appointment first = appointmentService.createPublicAppointment(businessId, request(LocalTime.of(14, 0), null));
+        appointmentService.updateAppointmentStatus(first.getId(), businessId, "CANCELLED");
+        appointmentService.createPublicAppointment(businessId, request(LocalTime.of(14, 30), null));
+
+        assertThatThrownBy(() -> appointmentService.updateAppointmentStatus(first.getId(), businessId, "PENDING"))
+                .hasMessage("Requested slot is already booked");
+        assertThat(appointmentRepository.findById(first.getId()).orElseThrow().getStatus())
+                .isEqualTo(Appointment.AppointmentStatus.CANCELLED);
+    }
+
+    @Test
+    void reactivatingDoesNotConflictWithItself() {
+        Appointment appointment = appointmentService.createPublicAppointment(businessId, request(LocalTime.of(15, 0), null));
+        appointmentService.updateAppointmentStatus(appointment.getId(), businessId, "CANCELLED");
+
+        appointmentService.updateAppointmentStatus(appointment.getId(), businessId, "CONFIRMED");
+
+        assertThat(occupyingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void noShowFreesTheTime() {
+        Appointment appointment = appointmentService.createPublicAppointment(businessId, request(LocalTime.of(16, 0), null));
+        appointmentService.updateAppointmentStatus(appointment.getId(), businessId, "NO_SHOW");
+
+        appointmentService.createPublicAppointment(businessId, request(LocalTime.of(16, 0), null));
+        assertThat(occupyingCount()).isEqualTo(1);
+    }
+
+    // The reminder timer's per-appointment deadline, as opposed to the dashboard
+    @Test
+    void timerNoShowFreesTheTimeAndCanBeReactivated() {
+        Appointment appointment = appointmentService.createPublicAppointment(businessId, request(LocalTime.of(17, 0), null));
+        assertThat(bookingScheduleIndex.isFree(businessId, date, LocalTime.of(17, 0), LocalTime.of(18, 0))).isFalse();
+
+        reminderService.markNoShow(appointmentRepository.findById(appointment.getId()).orElseThrow());
+        assertThat(bookingScheduleIndex.isFree(businessId, date, LocalTime.of(17, 0), LocalTime.of(18, 0))).isTrue();
+
+        appointmentService.updateAppointmentStatus(appointment.getId(), businessId, "PENDING");
+        assertThat(occupyingCount()).isEqualTo(1);
+        assertThat(bookingScheduleIndex.isFree(businessId, date, LocalTime.of(17, 0), LocalTime.of(18, 0))).isFalse();
+    }
+
+    // Starts 60-minute bookings 5 minutes apart, so every pair overlaps, and returns how many succeeded
+    private int race(BookingAttempt attempt) throws Exception {
+        int attempts = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                LocalTime startTime = LocalTime.of(10, 0).plusMinutes(5L * i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        attempt.book(startTime);
+                        return true;
+                    } catch (RuntimeException e) {
+                        assertThat(e).hasMessage("Requested slot is already booked");
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    winners++;
+                }
+            }
+            return winners;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private AppointmentDTO request(LocalTime startTime, LocalTime endTime) {
+        AppointmentDTO request = new AppointmentDTO();
+        request.setServiceId(serviceId);
+        request.setCustomerName("Customer");
+        request.setCustomerPhone("+212611111111");
+        request.setAppointmentDate(date);
+        request.setStartTime(startTime);
+        request.setEndTime(endTime);
+        return request;
+    }
+
+    private long occupyingCount() {
+        return appointmentRepository.findByUserId(businessId).stream()
+                .filter(appointment -> appointment.getStatus().occupiesSlot())
+                .count();
+    }
+
+    private interface BookingAttempt {
+        void book(LocalTime startTime);
+    }
+}
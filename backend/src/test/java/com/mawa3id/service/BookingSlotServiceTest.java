@@ -0,0 +1,110 @@
+package com.mawa3id.service;
+
+import com.mawa3id.dto.AppointmentDTO;
+import com.mawa3id.dto.AvailableSlotsDTO;
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.Availability;
+import com.mawa3id.model.Service;
+import com.mawa3id.model.User;
+import com.mawa3id.repository.AvailabilityRepository;
+import com.mawa3id.repository.ServiceRepository;
+import com.mawa3id.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingSlotServiceTest {
+
+    @Autowired
+    private BookingSlotService bookingSlotService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    private UUID businessId;
+    private UUID serviceId;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        User business = new User();
+        business.setBusinessName("Test Salon");
+        business.setEmail(UUID.randomUUID() + "@example.com");
+        business.setPhone("+212600000000");
+        business.setPasswordHash("x");
+        businessId = userRepository.save(business).getId();
+
+        Service service = new Service();
+        service.setUserId(businessId);
+        service.setName("Haircut");
+        service.setDurationMinutes(60);
+        service.setPrice(new BigDecimal("100.00"));
+        serviceId = serviceRepository.save(service).getId();
+
+        date = LocalDate.now().plusDays(7);
+        Availability availability = new Availability();
+        availability.setUserId(businessId);
+        availability.setDayOfWeek(date.getDayOfWeek().getValue() % 7);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(18, 0));
+        availabilityRepository.save(availability);
+    }
+
+    @Test
+    void upcomingAppointmentHidesItsStartTimes() {
+        appointmentService.createPublicAppointment(businessId, request(LocalTime.of(10, 0)));
+
+        assertThat(startTimes()).doesNotContain(LocalTime.of(10, 0), LocalTime.of(9, 15))
+                .contains(LocalTime.of(9, 0), LocalTime.of(11, 0));
+    }
+
+    // Matches what createPublicAppointment accepts: only PENDING and CONFIRMED hold the slot
+    @Test
+    void noShowAndCancelledAppointmentsFreeTheirSlot() {
+        Appointment noShow = appointmentService.createPublicAppointment(businessId, request(LocalTime.of(10, 0)));
+        appointmentService.updateAppointmentStatus(noShow.getId(), businessId, "NO_SHOW");
+        Appointment cancelled = appointmentService.createPublicAppointment(businessId, request(LocalTime.of(14, 0)));
+        appointmentService.updateAppointmentStatus(cancelled.getId(), businessId, "CANCELLED");
+
+        assertThat(startTimes()).contains(LocalTime.of(10, 0), LocalTime.of(14, 0));
+        appointmentService.createPublicAppointment(businessId, request(LocalTime.of(10, 0)));
+    }
+
+    private List<LocalTime> startTimes() {
+        return bookingSlotService.getAvailableSlots(businessId, serviceId, date, date).stream()
+                .filter(slots -> slots.getDate().equals(date))
+                .flatMap(slots -> slots.getStartTimes().stream())
+                .toList();
+    }
+
+    private AppointmentDTO request(LocalTime startTime) {
+        AppointmentDTO request = new AppointmentDTO();
+        request.setServiceId(serviceId);
+        request.setCustomerName("Customer");
+        request.setCustomerPhone("+212611111111");
+        request.setAppointmentDate(date);
+        request.setStartTime(startTime);
+        return request;
+    }
+}
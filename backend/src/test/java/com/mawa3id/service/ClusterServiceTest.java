@@ -0,0 +1,107 @@
+package com.mawa3id.service;
+
+import com.mawa3id.event.ClusterMembershipChangedEvent;
+import com.mawa3id.repository.ClusterNodeRepository;
+import com.mawa3id.repository.SchedulerLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+// Two ClusterService instances sharing the test database stand in for two backend nodes
+@SpringBootTest
+@ActiveProfiles("test")
+class ClusterServiceTest {
+
+    private static final long LEASE_MS = 1000;
+
+    @Autowired
+    private ClusterNodeRepository clusterNodeRepository;
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher firstEvents = mock(ApplicationEventPublisher.class);
+    private final ApplicationEventPublisher secondEvents = mock(ApplicationEventPublisher.class);
+
+    private ClusterService first;
+    private ClusterService second;
+
+    @BeforeEach
+    void setUp() {
+        clusterNodeRepository.deleteAll();
+        schedulerLeaseRepository.deleteAll();
+        first = node("node-a", firstEvents);
+        second = node("node-b", secondEvents);
+    }
+
+    @Test
+    void singleNodeLeadsAndOwnsEveryBusiness() {
+        first.heartbeat();
+
+        assertThat(first.isLeader()).isTrue();
+        for (int i = 0; i < 100; i++) {
+            assertThat(first.ownsUser(UUID.randomUUID())).isTrue();
+        }
+    }
+
+    @Test
+    void secondNodeSplitsThePartitionsAndDoesNotLead() {
+        first.heartbeat();
+        second.heartbeat();
+        first.heartbeat();
+
+        assertThat(first.isLeader()).isTrue();
+        assertThat(second.isLeader()).isFalse();
+        for (int i = 0; i < 100; i++) {
+            UUID userId = UUID.randomUUID();
+            assertThat(first.ownsUser(userId)).isNotEqualTo(second.ownsUser(userId));
+        }
+
+        ArgumentCaptor<ClusterMembershipChangedEvent> event = ArgumentCaptor.forClass(ClusterMembershipChangedEvent.class);
+        verify(firstEvents).publishEvent(event.capture());
+        assertThat(event.getValue().getPartitionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void leadershipMovesWhenTheLeaderStopsRenewing() throws InterruptedException {
+        first.heartbeat();
+        second.heartbeat();
+        assertThat(second.isLeader()).isFalse();
+
+        TimeUnit.MILLISECONDS.sleep(LEASE_MS * 2);
+        second.heartbeat();
+
+        assertThat(second.isLeader()).isTrue();
+        for (int i = 0; i < 100; i++) {
+            assertThat(second.ownsUser(UUID.randomUUID())).isTrue();
+        }
+    }
+
+    private ClusterService node(String nodeId, ApplicationEventPublisher eventPublisher) {
+        ClusterService node = new ClusterService();
+        ReflectionTestUtils.setField(node, "clusterNodeRepository", clusterNodeRepository);
+        ReflectionTestUtils.setField(node, "schedulerLeaseRepository", schedulerLeaseRepository);
+        ReflectionTestUtils.setField(node, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(node, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(node, "configuredNodeId", nodeId);
+        ReflectionTestUtils.setField(node, "leaseMs", LEASE_MS);
+        node.init();
+        return node;
+    }
+}
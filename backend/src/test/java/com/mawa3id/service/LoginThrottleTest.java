@@ -0,0 +1,52 @@
+package com.mawa3id.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginThrottle();
+        ReflectionTestUtils.setField(throttle, "windowMs", 60_000L);
+        ReflectionTestUtils.setField(throttle, "maxAttemptsPerEmail", 3);
+        ReflectionTestUtils.setField(throttle, "maxAttemptsPerIp", 5);
+        ReflectionTestUtils.setField(throttle, "maxRegistrationsPerIp", 2);
+        ReflectionTestUtils.setField(throttle, "stripeCount", 4);
+        throttle.init();
+    }
+
+    @Test
+    void registrationsAreLimitedPerIp() {
+        throttle.recordRegistration("10.0.0.1");
+        throttle.recordRegistration("10.0.0.1");
+
+        assertTooManyRequests(() -> throttle.recordRegistration("10.0.0.1"));
+        throttle.recordRegistration("10.0.0.2");
+    }
+
+    @Test
+    void registrationsDoNotUseUpLoginAttempts() {
+        throttle.recordRegistration("10.0.0.1");
+        throttle.recordRegistration("10.0.0.1");
+
+        for (int i = 0; i < 3; i++) {
+            throttle.recordAttempt("owner@example.com", "10.0.0.1");
+        }
+        assertTooManyRequests(() -> throttle.recordAttempt("owner@example.com", "10.0.0.1"));
+    }
+
+    private static void assertTooManyRequests(Runnable attempt) {
+        assertThatThrownBy(attempt::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+    }
+}
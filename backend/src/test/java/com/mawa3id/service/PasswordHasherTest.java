@@ -0,0 +1,84 @@
+package com.mawa3id.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+    private static final int MAX_PENDING_ENCODES = 2;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private PasswordHasher hasher;
+
+    @BeforeEach
+    void setUp() {
+        hasher = new PasswordHasher();
+        ReflectionTestUtils.setField(hasher, "passwordEncoder", new BlockingEncoder(release));
+        ReflectionTestUtils.setField(hasher, "threads", 1);
+        ReflectionTestUtils.setField(hasher, "queueCapacity", 8);
+        ReflectionTestUtils.setField(hasher, "maxPendingEncodes", MAX_PENDING_ENCODES);
+        hasher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.shutdown();
+    }
+
+    @Test
+    void registrationsCannotTakeTheCapacityLoginsNeed() throws Exception {
+        CompletableFuture<String> first = hasher.encode("secret-1");
+        CompletableFuture<String> second = hasher.encode("secret-2");
+
+        assertThatThrownBy(() -> hasher.encode("secret-3"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        CompletableFuture<Boolean> login = hasher.matches("secret-1", "hash:secret-1");
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("hash:secret-1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("hash:secret-2");
+        assertThat(login.get(5, TimeUnit.SECONDS)).isTrue();
+
+        // Permits come back once the hashes are done
+        assertThat(hasher.encode("secret-4").get(5, TimeUnit.SECONDS)).isEqualTo("hash:secret-4");
+    }
+
+    // Stands in for BCrypt: holds every call until the test releases it
+    private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals("hash:" + rawPassword);
+        }
+
+        private void await() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mawa3id.service;
+
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.ReminderLog;
+import com.mawa3id.model.Service;
+import com.mawa3id.model.SmsOutboxMessage;
+import com.mawa3id.model.User;
+import com.mawa3id.repository.AppointmentRepository;
+import com.mawa3id.repository.ReminderLogRepository;
+import com.mawa3id.repository.ServiceRepository;
+import com.mawa3id.repository.SmsOutboxRepository;
+import com.mawa3id.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReminderDispatcherTest {
+
+    @Autowired
+    private ReminderDispatcher reminderDispatcher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ReminderLogRepository reminderLogRepository;
+
+    @Autowired
+    private SmsOutboxRepository smsOutboxRepository;
+
+    private UUID businessId;
+    private UUID serviceId;
+
+    @BeforeEach
+    void setUp() {
+        User business = new User();
+        business.setBusinessName("Test Salon");
+        business.setEmail(UUID.randomUUID() + "@example.com");
+        business.setPhone("+212600000000");
+        business.setPasswordHash("x");
+        businessId = userRepository.save(business).getId();
+
+        Service service = new Service();
+        service.setUserId(businessId);
+        service.setName("Haircut");
+        service.setDurationMinutes(60);
+        service.setPrice(new BigDecimal("100.00"));
+        serviceId = serviceRepository.save(service).getId();
+    }
+
+    @Test
+    void appointmentWhoseServiceWasDeletedDoesNotHoldBackTheBatch() {
+        Appointment first = appointment(serviceId);
+        // Appointments keep their serviceId when the service is deleted
+        Appointment orphaned = appointment(UUID.randomUUID());
+        Appointment second = appointment(serviceId);
+
+        reminderDispatcher.dispatch(List.of(
+                job(first), job(orphaned), job(second)));
+
+        assertThat(log(first).getStatus()).isEqualTo(ReminderLog.ReminderStatus.QUEUED);
+        assertThat(log(second).getStatus()).isEqualTo(ReminderLog.ReminderStatus.QUEUED);
+        assertThat(outboxCount(first)).isEqualTo(1);
+        assertThat(outboxCount(second)).isEqualTo(1);
+
+        ReminderLog failed = log(orphaned);
+        assertThat(failed.getStatus()).isEqualTo(ReminderLog.ReminderStatus.FAILED);
+        assertThat(failed.getAttemptCount()).isEqualTo(1);
+        assertThat(failed.getNextAttemptAt()).isNotNull();
+        assertThat(outboxCount(orphaned)).isZero();
+    }
+
+    private Appointment appointment(UUID appointmentServiceId) {
+        Appointment appointment = new Appointment();
+        appointment.setUserId(businessId);
+        appointment.setServiceId(appointmentServiceId);
+        appointment.setCustomerName("Customer");
+        appointment.setCustomerPhone("+212611111111");
+        appointment.setAppointmentDate(LocalDate.now().plusDays(1));
+        appointment.setStartTime(LocalTime.of(10, 0));
+        appointment.setEndTime(LocalTime.of(11, 0));
+        appointment.setStatus(Appointment.AppointmentStatus.PENDING);
+        appointment.setConfirmationToken(UUID.randomUUID().toString());
+        return appointmentRepository.save(appointment);
+    }
+
+    private static ReminderDispatcher.ReminderJob job(Appointment appointment) {
+        return new ReminderDispatcher.ReminderJob(appointment, ReminderLog.ReminderType.FIRST_REMINDER);
+    }
+
+    private ReminderLog log(Appointment appointment) {
+        return reminderLogRepository.findByAppointmentIdIn(List.of(appointment.getId())).stream()
+                .filter(log -> log.getType() == ReminderLog.ReminderType.FIRST_REMINDER)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private long outboxCount(Appointment appointment) {
+        return smsOutboxRepository.findAll().stream()
+                .map(SmsOutboxMessage::getAppointmentId)
+                .filter(appointment.getId()::equals)
+                .count();
+    }
+}
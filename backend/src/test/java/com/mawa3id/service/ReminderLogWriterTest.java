@@ -0,0 +1,104 @@
+package com.mawa3id.service;
+
+import com.mawa3id.model.ReminderLog;
+import com.mawa3id.repository.ReminderLogRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReminderLogWriterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderLogWriterTest.class);
+
+    private static final int ROWS = 5000;
+
+    @Autowired
+    private ReminderLogWriter reminderLogWriter;
+
+    @Autowired
+    private ReminderLogRepository reminderLogRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // ReminderDispatcher only falls back to one-at-a-time queueing on this exception type
+    @Test
+    void duplicateReminderLogIsReportedAsDataIntegrityViolation() {
+        UUID appointmentId = UUID.randomUUID();
+        transactionTemplate.executeWithoutResult(status -> {
+            ReminderLogWriter.Buffer buffer = reminderLogWriter.buffer();
+            buffer.add(log(appointmentId));
+            buffer.flush();
+        });
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            ReminderLogWriter.Buffer buffer = reminderLogWriter.buffer();
+            buffer.add(log(appointmentId));
+            buffer.flush();
+        })).isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(reminderLogRepository.findByAppointmentId(appointmentId)).hasSize(1);
+    }
+
+    // Insert rate of the batched buffer against one save-and-flush round trip per row
+    @Test
+    void insertRate() {
+        long rowByRowNanos = time(() -> {
+            for (ReminderLog log : logs()) {
+                reminderLogRepository.saveAndFlush(log);
+            }
+        });
+        long batchedNanos = time(() -> {
+            ReminderLogWriter.Buffer buffer = reminderLogWriter.buffer();
+            for (ReminderLog log : logs()) {
+                buffer.add(log);
+            }
+            assertThat(buffer.flush()).isEqualTo(ROWS);
+        });
+
+        logger.info("Inserted {} reminder logs: row by row {} rows/s, batched {} rows/s",
+                ROWS, rate(rowByRowNanos), rate(batchedNanos));
+        assertThat(reminderLogRepository.count()).isGreaterThanOrEqualTo(2L * ROWS);
+    }
+
+    private long time(Runnable writes) {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> writes.run());
+        return System.nanoTime() - started;
+    }
+
+    private static long rate(long nanos) {
+        return ROWS * TimeUnit.SECONDS.toNanos(1) / Math.max(1, nanos);
+    }
+
+    private static List<ReminderLog> logs() {
+        List<ReminderLog> logs = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            logs.add(log(UUID.randomUUID()));
+        }
+        return logs;
+    }
+
+    private static ReminderLog log(UUID appointmentId) {
+        ReminderLog log = new ReminderLog();
+        log.setAppointmentId(appointmentId);
+        log.setType(ReminderLog.ReminderType.FIRST_REMINDER);
+        log.setStatus(ReminderLog.ReminderStatus.QUEUED);
+        return log;
+    }
+}
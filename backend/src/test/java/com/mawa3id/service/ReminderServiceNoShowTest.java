@@ -0,0 +1,81 @@
+package com.mawa3id.service;
+
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.BusinessStat;
+import com.mawa3id.repository.AppointmentRepository;
+import com.mawa3id.repository.BusinessStatRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReminderServiceNoShowTest {
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private BusinessStatRepository businessStatRepository;
+
+    @Test
+    void expiredPendingAppointmentsMoveToNoShowWithMatchingStats() {
+        UUID businessId = UUID.randomUUID();
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            appointments.add(appointment(businessId, Appointment.AppointmentStatus.PENDING));
+        }
+        Appointment confirmed = appointment(businessId, Appointment.AppointmentStatus.CONFIRMED);
+
+        reminderService.markExpiredNoShows();
+
+        for (Appointment appointment : appointments) {
+            assertThat(appointmentRepository.findById(appointment.getId()).orElseThrow().getStatus())
+                    .isEqualTo(Appointment.AppointmentStatus.NO_SHOW);
+        }
+        assertThat(appointmentRepository.findById(confirmed.getId()).orElseThrow().getStatus())
+                .isEqualTo(Appointment.AppointmentStatus.CONFIRMED);
+
+        BusinessStat noShows = stat(businessId, Appointment.AppointmentStatus.NO_SHOW);
+        assertThat(noShows.getAppointmentCount()).isEqualTo(3);
+        assertThat(noShows.getRevenue()).isEqualByComparingTo("150.00");
+        BusinessStat pending = stat(businessId, Appointment.AppointmentStatus.PENDING);
+        assertThat(pending.getAppointmentCount()).isEqualTo(-3);
+        assertThat(pending.getRevenue()).isEqualByComparingTo("-150.00");
+    }
+
+    private Appointment appointment(UUID businessId, Appointment.AppointmentStatus status) {
+        Appointment appointment = new Appointment();
+        appointment.setUserId(businessId);
+        appointment.setServiceId(UUID.randomUUID());
+        appointment.setCustomerName("Customer");
+        appointment.setCustomerPhone("+212611111111");
+        appointment.setAppointmentDate(LocalDate.now().minusDays(1));
+        appointment.setStartTime(LocalTime.of(10, 0));
+        appointment.setEndTime(LocalTime.of(10, 30));
+        appointment.setStatus(status);
+        appointment.setPrice(new BigDecimal("50.00"));
+        appointment.setConfirmationToken(UUID.randomUUID().toString());
+        return appointmentRepository.save(appointment);
+    }
+
+    private BusinessStat stat(UUID businessId, Appointment.AppointmentStatus status) {
+        return businessStatRepository.findByUserId(businessId).stream()
+                .filter(stat -> stat.getStatus() == status)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,129 @@
+package com.mawa3id.service;
+
+import com.mawa3id.dto.ReminderTemplateDTO;
+import com.mawa3id.model.Appointment;
+import com.mawa3id.model.ReminderLog;
+import com.mawa3id.model.ReminderTemplate;
+import com.mawa3id.model.Service;
+import com.mawa3id.model.User;
+import com.mawa3id.repository.ReminderTemplateRepository;
+import com.mawa3id.repository.ServiceRepository;
+import com.mawa3id.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.reminders.template-cache.ttl-ms=200")
+@ActiveProfiles("test")
+class ReminderTemplateServiceTest {
+
+    @Autowired
+    private ReminderTemplateService reminderTemplateService;
+
+    @Autowired
+    private ReminderTemplateRepository reminderTemplateRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    private UUID businessId;
+    private UUID serviceId;
+
+    @BeforeEach
+    void setUp() {
+        User business = new User();
+        business.setBusinessName("Test Salon");
+        business.setEmail(UUID.randomUUID() + "@example.com");
+        business.setPhone("+212600000000");
+        business.setPasswordHash("x");
+        businessId = userRepository.save(business).getId();
+
+        Service service = new Service();
+        service.setUserId(businessId);
+        service.setName("Haircut");
+        service.setDurationMinutes(60);
+        service.setPrice(new BigDecimal("100.00"));
+        serviceId = serviceRepository.save(service).getId();
+    }
+
+    @Test
+    void businessWideTemplateIsSavedOncePerTypeAndLocale() {
+        reminderTemplateService.saveTemplate(businessId, request("First {customerName}"));
+        reminderTemplateService.saveTemplate(businessId, request("Second {customerName}"));
+
+        assertThat(reminderTemplateRepository.findByUserId(businessId))
+                .singleElement()
+                .satisfies(template -> {
+                    assertThat(template.getServiceId()).isNull();
+                    assertThat(template.getScopeId()).isEqualTo(ReminderTemplate.BUSINESS_WIDE);
+                    assertThat(template.getBody()).isEqualTo("Second {customerName}");
+                });
+    }
+
+    @Test
+    void uniqueKeyRejectsASecondBusinessWideTemplate() {
+        reminderTemplateRepository.saveAndFlush(template());
+
+        assertThatThrownBy(() -> reminderTemplateRepository.saveAndFlush(template()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    // A change made on another node is not evicted here, but the entry expires
+    @Test
+    void cachedTemplatesExpireAfterTheTtl() throws InterruptedException {
+        Appointment appointment = appointment();
+        assertThat(reminderTemplateService.render(appointment, ReminderLog.ReminderType.FIRST_REMINDER))
+                .startsWith("Hi Amina");
+
+        reminderTemplateRepository.saveAndFlush(template());
+        assertThat(reminderTemplateService.render(appointment, ReminderLog.ReminderType.FIRST_REMINDER))
+                .startsWith("Hi Amina");
+
+        TimeUnit.MILLISECONDS.sleep(400);
+        assertThat(reminderTemplateService.render(appointment, ReminderLog.ReminderType.FIRST_REMINDER))
+                .isEqualTo("Salam Amina");
+    }
+
+    private ReminderTemplateDTO request(String body) {
+        ReminderTemplateDTO request = new ReminderTemplateDTO();
+        request.setType(ReminderLog.ReminderType.FIRST_REMINDER);
+        request.setLocale("en");
+        request.setBody(body);
+        return request;
+    }
+
+    private ReminderTemplate template() {
+        ReminderTemplate template = new ReminderTemplate();
+        template.setUserId(businessId);
+        template.setType(ReminderLog.ReminderType.FIRST_REMINDER);
+        template.setLocale("en");
+        template.setBody("Salam {customerName}");
+        return template;
+    }
+
+    private Appointment appointment() {
+        Appointment appointment = new Appointment();
+        appointment.setId(UUID.randomUUID());
+        appointment.setUserId(businessId);
+        appointment.setServiceId(serviceId);
+        appointment.setCustomerName("Amina");
+        appointment.setAppointmentDate(LocalDate.now().plusDays(1));
+        appointment.setStartTime(LocalTime.of(10, 0));
+        return appointment;
+    }
+}
@@ -0,0 +1,81 @@
+package com.mawa3id.service;
+
+import com.mawa3id.dto.AuthResponse;
+import com.mawa3id.dto.RefreshTokenRequest;
+import com.mawa3id.model.User;
+import com.mawa3id.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceRefreshTokenTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setBusinessName("Test Salon");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPhone("+212600000000");
+        user.setPasswordHash("x");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void refreshRotatesTheToken() {
+        String first = userService.issueTokens(user, "Login successful").getRefreshToken();
+
+        AuthResponse rotated = refresh(first);
+
+        assertThat(rotated.getRefreshToken()).isNotEqualTo(first);
+        assertThat(refresh(rotated.getRefreshToken()).getToken()).isNotBlank();
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeLogin() {
+        String first = userService.issueTokens(user, "Login successful").getRefreshToken();
+        String second = refresh(first).getRefreshToken();
+
+        assertUnauthorized(first);
+        // The legitimate holder's newer token goes too
+        assertUnauthorized(second);
+    }
+
+    @Test
+    void reuseDoesNotAffectOtherLogins() {
+        String stolen = userService.issueTokens(user, "Login successful").getRefreshToken();
+        String otherDevice = userService.issueTokens(user, "Login successful").getRefreshToken();
+        refresh(stolen);
+        assertUnauthorized(stolen);
+
+        assertThat(refresh(otherDevice).getToken()).isNotBlank();
+    }
+
+    private AuthResponse refresh(String refreshToken) {
+        return userService.refreshToken(new RefreshTokenRequest(refreshToken));
+    }
+
+    private void assertUnauthorized(String refreshToken) {
+        assertThatThrownBy(() -> refresh(refreshToken))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    }
+}
@@ -0,0 +1,81 @@
+package com.mawa3id.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedTtlCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void loadsOnceUntilTheEntryExpires() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("a", loads::incrementAndGet, NOW)).isEqualTo(1);
+        assertThat(cache.get("a", loads::incrementAndGet, NOW + 99)).isEqualTo(1);
+        assertThat(cache.get("a", loads::incrementAndGet, NOW + 100)).isEqualTo(2);
+
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsTheLeastRecentlyUsedEntryOverCapacity() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, 1000);
+        cache.get("a", () -> "A", NOW);
+        cache.get("b", () -> "B", NOW);
+        cache.getIfPresent("a", NOW);
+        cache.get("c", () -> "C", NOW);
+
+        assertThat(cache.getIfPresent("a", NOW)).isEqualTo("A");
+        assertThat(cache.getIfPresent("b", NOW)).isNull();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void loadThatOverlapsAnInvalidationIsNotStored() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 1000);
+
+        String value = cache.get("a", () -> {
+            cache.invalidate("a");
+            return "stale";
+        }, NOW);
+
+        assertThat(value).isEqualTo("stale");
+        assertThat(cache.getIfPresent("a", NOW)).isNull();
+    }
+
+    @Test
+    void invalidatesByKeysAndByPredicate() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 1000);
+        cache.get("a", () -> 1, NOW);
+        cache.get("b", () -> 2, NOW);
+        cache.get("c", () -> 3, NOW);
+
+        cache.invalidateAll(List.of("a"));
+        cache.invalidateIf((key, value) -> value == 3);
+
+        assertThat(cache.getIfPresent("a", NOW)).isNull();
+        assertThat(cache.getIfPresent("b", NOW)).isEqualTo(2);
+        assertThat(cache.getIfPresent("c", NOW)).isNull();
+    }
+
+    @Test
+    void putKeepsTheGivenExpiry() {
+        BoundedTtlCache<String, Boolean> cache = new BoundedTtlCache<>(10);
+        cache.put("expired", true, 0);
+        cache.put("live", true, Long.MAX_VALUE);
+
+        cache.purgeExpired();
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getIfPresent("live")).isTrue();
+    }
+}
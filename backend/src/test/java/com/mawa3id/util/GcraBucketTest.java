@@ -0,0 +1,77 @@
+package com.mawa3id.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GcraBucketTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int BURST = 3;
+
+    @Test
+    void tryAcquireAllowsTheBurstThenReportsTheWait() {
+        GcraBucket bucket = new GcraBucket(INTERVAL, BURST);
+        long now = 1_000_000_000L;
+
+        for (int i = 0; i < BURST; i++) {
+            assertThat(bucket.tryAcquire(now)).isZero();
+        }
+        assertThat(bucket.tryAcquire(now)).isEqualTo(INTERVAL);
+        // A rejected call takes nothing, so the wait does not grow
+        assertThat(bucket.tryAcquire(now)).isEqualTo(INTERVAL);
+    }
+
+    @Test
+    void tryAcquireRefillsOneTokenPerInterval() {
+        GcraBucket bucket = new GcraBucket(INTERVAL, BURST);
+        long now = 1_000_000_000L;
+        for (int i = 0; i < BURST; i++) {
+            bucket.tryAcquire(now);
+        }
+
+        assertThat(bucket.tryAcquire(now + INTERVAL)).isZero();
+        assertThat(bucket.tryAcquire(now + INTERVAL)).isEqualTo(INTERVAL);
+        assertThat(bucket.tryAcquire(now + INTERVAL / 2 * 3)).isEqualTo(INTERVAL / 2);
+    }
+
+    @Test
+    void reservationsQueueUpBehindEachOther() {
+        GcraBucket bucket = new GcraBucket(INTERVAL, BURST);
+        long now = 1_000_000_000L;
+        for (int i = 0; i < BURST; i++) {
+            assertThat(bucket.reserve(now)).isLessThanOrEqualTo(0);
+        }
+
+        assertThat(bucket.reserve(now)).isEqualTo(INTERVAL);
+        assertThat(bucket.reserve(now)).isEqualTo(2 * INTERVAL);
+    }
+
+    @Test
+    void acquireSleepsUntilItsTokenIsDue() throws InterruptedException {
+        GcraBucket bucket = new GcraBucket(20.0, 1);
+
+        assertThat(bucket.acquire()).isZero();
+        long start = System.nanoTime();
+        long waited = bucket.acquire();
+
+        assertThat(waited).isPositive();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(waited);
+    }
+
+    @Test
+    void bucketIsIdleOnceFullyRefilled() {
+        GcraBucket bucket = new GcraBucket(INTERVAL, BURST);
+        // System.nanoTime() may be negative, so the sentinel must not be mistaken for a real arrival time
+        long now = -5_000_000_000L;
+        assertThat(bucket.isIdle(now)).isTrue();
+
+        bucket.tryAcquire(now);
+        bucket.tryAcquire(now);
+        assertThat(bucket.isIdle(now)).isFalse();
+        assertThat(bucket.isIdle(now + INTERVAL)).isFalse();
+        assertThat(bucket.isIdle(now + 2 * INTERVAL)).isTrue();
+    }
+}
@@ -20,10 +20,40 @@ api.interceptors.request.use((config) => {
   return Promise.reject(error);
 });
 
+// Exchange the refresh token for a new pair; concurrent 401s share one request
+let refreshRequest = null;
+const refreshTokens = () => {
+  if (!refreshRequest) {
+    refreshRequest = axios
+      .post(`${API_BASE_URL}/token/refresh`, { refreshToken: localStorage.getItem('refreshToken') })
+      .then((response) => {
+        localStorage.setItem('token', response.data.token);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token;
+      })
+      .finally(() => {
+        refreshRequest = null;
+      });
+  }
+  return refreshRequest;
+};
+
 // Handle responses
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    const original = error.config;
+    const canRefresh = original && !original._retried && original.url !== '/login' && localStorage.getItem('refreshToken');
+    if (error.response?.status === 401 && canRefresh) {
+      original._retried = true;
+      try {
+        const token = await refreshTokens();
+        original.headers.Authorization = `Bearer ${token}`;
+        return api(original);
+      } catch (refreshError) {
+        // Fall through to a fresh login
+      }
+    }
     if (error.response?.status === 401) {
       localStorage.removeItem('token');
       localStorage.removeItem('refreshToken');
@@ -37,6 +67,7 @@ api.interceptors.response.use(
 export const authAPI = {
   register: (data) => api.post('/register', data),
   login: (data) => api.post('/login', data),
+  refresh: (refreshToken) => api.post('/token/refresh', { refreshToken }),
   getProfile: () => api.get('/profile'),
   updateProfile: (data) => api.put('/profile', data),
 };
@@ -61,10 +92,12 @@ export const availabilityAPI = {
 
 // Appointments API
 export const appointmentsAPI = {
-  getAll: () => api.get('/appointments'),
+  // Full unpaginated list; the dashboard pages through getPage instead
+  getAll: () => api.get('/appointments', { params: { all: true } }),
+  getPage: (cursor, limit) => api.get('/appointments', { params: { cursor, limit } }),
   getById: (id) => api.get(`/appointments/${id}`),
-  getByDateRange: (startDate, endDate) =>
-    api.get('/appointments/date-range', { params: { startDate, endDate } }),
+  getByDateRange: (startDate, endDate, cursor, limit) =>
+    api.get('/appointments/date-range', { params: { startDate, endDate, cursor, limit } }),
   create: (data) => api.post('/appointments', data),
   updateStatus: (id, status) => api.put(`/appointments/${id}/status`, null, { params: { status } }),
   delete: (id) => api.delete(`/appointments/${id}`),
@@ -83,4 +116,7 @@ export const analyticsAPI = {
   getAnalytics: () => api.get('/analytics'),
 };
 
+// Cursor for the next page of a paginated list, or null on the last page
+export const nextCursorOf = (response) => response.headers['x-next-cursor'] || null;
+
 export default api;
\ No newline at end of file
@@ -5,6 +5,9 @@ import { CheckCircle, XCircle, Clock, Trash2 } from 'lucide-react';
 
 const AppointmentsView = () => {
   const appointments = useAppStore((state) => state.appointments);
+  const appointmentsCursor = useAppStore((state) => state.appointmentsCursor);
+  const fetchMoreAppointments = useAppStore((state) => state.fetchMoreAppointments);
+  const isLoading = useAppStore((state) => state.isLoading);
   const updateAppointmentStatus = useAppStore((state) => state.updateAppointmentStatus);
   const deleteAppointment = useAppStore((state) => state.deleteAppointment);
 
@@ -112,6 +115,18 @@ const AppointmentsView = () => {
           </tbody>
         </table>
       </div>
+
+      {appointmentsCursor && (
+        <div className="mt-4 text-center">
+          <button
+            onClick={fetchMoreAppointments}
+            disabled={isLoading}
+            className="px-4 py-2 border border-gray-300 rounded-md text-gray-700 hover:bg-gray-50 disabled:opacity-50"
+          >
+            Load more
+          </button>
+        </div>
+      )}
     </div>
   );
 };
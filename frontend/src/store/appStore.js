@@ -1,10 +1,11 @@
 import { create } from 'zustand';
-import { servicesAPI, availabilityAPI, appointmentsAPI, analyticsAPI } from '../api/client';
+import { servicesAPI, availabilityAPI, appointmentsAPI, analyticsAPI, nextCursorOf } from '../api/client';
 
 export const useAppStore = create((set, get) => ({
   services: [],
   availability: [],
   appointments: [],
+  appointmentsCursor: null,
   analytics: null,
   isLoading: false,
   error: null,
@@ -108,8 +109,26 @@ export const useAppStore = create((set, get) => ({
   fetchAppointments: async () => {
     set({ isLoading: true, error: null });
     try {
-      const response = await appointmentsAPI.getAll();
-      set({ appointments: response.data, isLoading: false });
+      const response = await appointmentsAPI.getPage();
+      set({ appointments: response.data, appointmentsCursor: nextCursorOf(response), isLoading: false });
+    } catch (error) {
+      set({ error: 'Failed to fetch appointments', isLoading: false });
+    }
+  },
+
+  fetchMoreAppointments: async () => {
+    const cursor = get().appointmentsCursor;
+    if (!cursor) {
+      return;
+    }
+    set({ isLoading: true, error: null });
+    try {
+      const response = await appointmentsAPI.getPage(cursor);
+      set((state) => ({
+        appointments: [...state.appointments, ...response.data],
+        appointmentsCursor: nextCursorOf(response),
+        isLoading: false,
+      }));
     } catch (error) {
       set({ error: 'Failed to fetch appointments', isLoading: false });
     }